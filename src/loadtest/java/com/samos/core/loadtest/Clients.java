@@ -0,0 +1,42 @@
+package com.samos.core.loadtest;
+
+import java.util.concurrent.TimeUnit;
+
+import com.samos.core.feign.ApiClient;
+import com.samos.core.feign.handler.BookingsApi;
+import com.samos.core.feign.handler.CitiesApi;
+import com.samos.core.feign.handler.GroupsApi;
+import com.samos.core.feign.handler.PhotosApi;
+import com.samos.core.feign.handler.TerritoriesApi;
+
+import feign.okhttp.OkHttpClient;
+import lombok.Getter;
+import okhttp3.ConnectionPool;
+
+/**
+ * Les clients Feign générés, configurés pour le test de charge : une connexion
+ * conservée par requête simultanée.
+ */
+@Getter
+public class Clients {
+
+	private final GroupsApi groupsApi;
+	private final CitiesApi citiesApi;
+	private final TerritoriesApi territoriesApi;
+	private final BookingsApi bookingsApi;
+	private final PhotosApi photosApi;
+
+	public Clients(String targetUrl, int concurrency) {
+		final ApiClient apiClient = new ApiClient().setBasePath(targetUrl);
+		apiClient.getFeignBuilder()
+				.client(new OkHttpClient(new okhttp3.OkHttpClient.Builder()
+						.connectionPool(new ConnectionPool(concurrency, 5, TimeUnit.MINUTES))
+						.build()));
+		groupsApi = apiClient.buildClient(GroupsApi.class);
+		citiesApi = apiClient.buildClient(CitiesApi.class);
+		territoriesApi = apiClient.buildClient(TerritoriesApi.class);
+		bookingsApi = apiClient.buildClient(BookingsApi.class);
+		photosApi = apiClient.buildClient(PhotosApi.class);
+	}
+
+}
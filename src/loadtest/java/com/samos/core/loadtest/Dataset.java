@@ -0,0 +1,52 @@
+package com.samos.core.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import lombok.Getter;
+
+/**
+ * Les ressources créées par le {@link DatasetGenerator}, tirées au hasard par les
+ * opérations du test de charge.
+ */
+@Getter
+public class Dataset {
+
+	private final List<Integer> groupIds = new CopyOnWriteArrayList<>();
+	private final Map<Integer, List<Integer>> territoryIdsByGroup = new ConcurrentHashMap<>();
+	private final Map<Integer, Integer> groupByTerritory = new ConcurrentHashMap<>();
+	private final Map<Integer, Integer> cityByTerritory = new ConcurrentHashMap<>();
+	private final List<Integer> territoryIds = new CopyOnWriteArrayList<>();
+	private final List<Integer> bookingIds = new CopyOnWriteArrayList<>();
+	private final List<Integer> photoIds = new CopyOnWriteArrayList<>();
+	private final List<Integer> years = new ArrayList<>();
+
+	void addTerritory(Integer groupId, Integer cityId, Integer territoryId) {
+		territoryIdsByGroup.computeIfAbsent(groupId, id -> new CopyOnWriteArrayList<>())
+				.add(territoryId);
+		groupByTerritory.put(territoryId, groupId);
+		cityByTerritory.put(territoryId, cityId);
+		territoryIds.add(territoryId);
+	}
+
+	Integer groupId(Random random) {
+		return pick(groupIds, random);
+	}
+
+	Integer territoryId(Random random) {
+		return pick(territoryIds, random);
+	}
+
+	Integer year(Random random) {
+		return pick(years, random);
+	}
+
+	static <T> T pick(List<T> values, Random random) {
+		return values.get(random.nextInt(values.size()));
+	}
+
+}
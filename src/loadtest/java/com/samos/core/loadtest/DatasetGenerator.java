@@ -0,0 +1,141 @@
+package com.samos.core.loadtest;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.samos.core.feign.model.BookingIn;
+import com.samos.core.feign.model.Group;
+import com.samos.core.feign.model.PhotoIn;
+import com.samos.core.feign.model.TerritoryIn;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Génération du jeu de données du test de charge via les endpoints de création :
+ * assemblées, territoires répartis sur les villes, plusieurs années de réservations et
+ * photos (dont une part de contenus en double).
+ * <p>
+ * Le jeu de données est reproductible : il ne dépend que de {@code loadtest.seed} et
+ * des volumes demandés.
+ */
+@Slf4j
+public class DatasetGenerator {
+
+	private static final PhotoIn.TypeEnum[] PHOTO_TYPES = PhotoIn.TypeEnum.values();
+	private static final PhotoIn.FaceEnum[] PHOTO_FACES = PhotoIn.FaceEnum.values();
+
+	/** Nombre de contenus distincts des photos en double. */
+	private static final int SHARED_CONTENTS = 100;
+
+	private final LoadTestSettings settings;
+	private final Clients clients;
+
+	public DatasetGenerator(LoadTestSettings settings, Clients clients) {
+		this.settings = settings;
+		this.clients = clients;
+	}
+
+	/**
+	 * @return les ressources créées
+	 */
+	public Dataset generate() {
+		final Dataset dataset = new Dataset();
+		final Random random = new Random(settings.getSeed());
+		final int currentYear = Year.now().getValue();
+		for (int year = currentYear - settings.getBookingYears() + 1; year <= currentYear; year++) {
+			dataset.getYears().add(year);
+		}
+
+		final long start = System.nanoTime();
+		for (int g = 0; g < settings.getGroups(); g++) {
+			final Group group = clients.getGroupsApi()
+					.addGroup(new Group().code("LT" + g).name("Assemblée de test " + g));
+			dataset.getGroupIds().add(group.getId());
+		}
+
+		final ExecutorService executor = Executors.newFixedThreadPool(settings.getConcurrency());
+		try {
+			// Graines tirées à l'avance : le contenu ne dépend pas de l'ordre d'exécution
+			final List<CompletableFuture<Void>> territories = new ArrayList<>();
+			for (final Integer groupId : dataset.getGroupIds()) {
+				for (int t = 0; t < settings.getTerritoriesPerGroup(); t++) {
+					final int number = t;
+					final long seed = random.nextLong();
+					territories.add(CompletableFuture.runAsync(
+							() -> territory(dataset, groupId, number, new Random(seed)),
+							executor));
+				}
+			}
+			CompletableFuture.allOf(territories.toArray(CompletableFuture[]::new)).join();
+		}
+		finally {
+			executor.shutdown();
+		}
+
+		log.info("Jeu de données créé en {} s : {} assemblées, {} territoires, {} réservations, {} photos",
+				(System.nanoTime() - start) / 1_000_000_000, dataset.getGroupIds().size(),
+				dataset.getTerritoryIds().size(), dataset.getBookingIds().size(),
+				dataset.getPhotoIds().size());
+		return dataset;
+	}
+
+	private void territory(Dataset dataset, Integer groupId, int number, Random random) {
+		final Integer cityId = Dataset.pick(settings.getCityIds(), random);
+		final Integer territoryId = clients.getTerritoriesApi()
+				.createUpdateTerritory(new TerritoryIn().group(groupId)
+						.city(cityId)
+						.number(String.format("%04d", number))
+						.name("Territoire " + number)
+						.active(true)
+						.type(TerritoryIn.TypeEnum.NORMAL))
+				.getId();
+		dataset.addTerritory(groupId, cityId, territoryId);
+
+		for (final Integer year : dataset.getYears()) {
+			LocalDate startDate = LocalDate.of(year, 1, 1).plusDays(random.nextInt(30));
+			for (int b = 0; b < settings.getBookingsPerTerritoryYear(); b++) {
+				final LocalDate endDate = startDate.plusDays(30 + random.nextInt(60));
+				dataset.getBookingIds().add(clients.getBookingsApi()
+						.addReservation(new BookingIn().territory(territoryId)
+								.contact(Dataset.pick(settings.getContactIds(), random))
+								.startDate(startDate)
+								.endDate(endDate))
+						.getId());
+				startDate = endDate.plusDays(1 + random.nextInt(20));
+			}
+		}
+
+		for (int p = 0; p < settings.getPhotosPerTerritory(); p++) {
+			dataset.getPhotoIds().add(clients.getPhotosApi()
+					.createUpdatePhoto(new PhotoIn().territory(territoryId)
+							.name("Photo " + number + "-" + p)
+							.format(PhotoIn.FormatEnum.A5)
+							.orientation(PhotoIn.OrientationEnum.LANDSCAPE)
+							.type(PHOTO_TYPES[p % PHOTO_TYPES.length])
+							.face(PHOTO_FACES[p % PHOTO_FACES.length])
+							.blob(photoContent(random))
+							.active(1))
+					.getId());
+		}
+	}
+
+	/**
+	 * Contenu d'une photo : une part {@code duplicatePhotoRatio} des photos reprend l'un
+	 * des {@link #SHARED_CONTENTS} contenus partagés, les autres ont un contenu unique.
+	 */
+	private byte[] photoContent(Random random) {
+		final long contentSeed = random.nextDouble() < settings.getDuplicatePhotoRatio()
+				? settings.getSeed() + random.nextInt(SHARED_CONTENTS)
+				: random.nextLong();
+		final byte[] content = new byte[settings.getPhotoSize()];
+		new Random(contentSeed).nextBytes(content);
+		return content;
+	}
+
+}
@@ -0,0 +1,158 @@
+package com.samos.core.loadtest;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Exécution de la charge.
+ * <ul>
+ * <li>modèle ouvert ({@code loadtest.arrival-rate} &gt; 0) : les requêtes arrivent à
+ * intervalles réguliers quel que soit le temps de réponse, et sont traitées par au plus
+ * {@code loadtest.concurrency} threads. La latence est mesurée depuis l'heure d'arrivée
+ * prévue, attente comprise, pour ne pas masquer les ralentissements ("coordinated
+ * omission") ;</li>
+ * <li>modèle fermé (arrival-rate = 0) : {@code loadtest.concurrency} threads
+ * enchaînent les requêtes.</li>
+ * </ul>
+ */
+@Slf4j
+public class LoadDriver {
+
+	/** Latence maximum mesurée : 1 heure, en microsecondes. */
+	private static final long HIGHEST_LATENCY = TimeUnit.HOURS.toMicros(1);
+
+	/** Nombre maximum de requêtes en attente (modèle ouvert) avant de les abandonner. */
+	private static final int MAX_BACKLOG_PER_THREAD = 100;
+
+	private final Workload workload;
+	private final int concurrency;
+	private final double arrivalRate;
+
+	public LoadDriver(Workload workload, int concurrency, double arrivalRate) {
+		this.workload = workload;
+		this.concurrency = concurrency;
+		this.arrivalRate = arrivalRate;
+	}
+
+	/**
+	 * @param duration la durée de la charge
+	 * @return les mesures par opération
+	 */
+	public Result run(Duration duration) throws InterruptedException {
+		final Result result = new Result(workload, duration);
+		final long deadline = System.nanoTime() + duration.toNanos();
+		final ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+		try {
+			if (arrivalRate > 0) {
+				open(result, executor, deadline);
+			}
+			else {
+				closed(result, executor, deadline);
+			}
+		}
+		finally {
+			executor.shutdown();
+			executor.awaitTermination(1, TimeUnit.MINUTES);
+		}
+		return result;
+	}
+
+	private void open(Result result, ExecutorService executor, long deadline) {
+		final long interval = (long) (TimeUnit.SECONDS.toNanos(1) / arrivalRate);
+		final AtomicInteger backlog = new AtomicInteger();
+		final int maxBacklog = concurrency * MAX_BACKLOG_PER_THREAD;
+		final Random random = new Random();
+		long intended = System.nanoTime();
+		while (intended < deadline) {
+			final long wait = intended - System.nanoTime();
+			if (wait > 0) {
+				LockSupport.parkNanos(wait);
+			}
+			final String operation = workload.next(random);
+			if (backlog.incrementAndGet() > maxBacklog) {
+				backlog.decrementAndGet();
+				result.dropped.increment();
+			}
+			else {
+				final long start = intended;
+				executor.execute(() -> {
+					try {
+						call(result, operation, start);
+					}
+					finally {
+						backlog.decrementAndGet();
+					}
+				});
+			}
+			intended += interval;
+		}
+	}
+
+	private void closed(Result result, ExecutorService executor, long deadline) {
+		for (int i = 0; i < concurrency; i++) {
+			executor.execute(() -> {
+				final Random random = ThreadLocalRandom.current();
+				while (System.nanoTime() < deadline) {
+					call(result, workload.next(random), System.nanoTime());
+				}
+			});
+		}
+	}
+
+	private void call(Result result, String operation, long start) {
+		final Stats stats = result.stats.get(operation);
+		try {
+			workload.execute(operation, ThreadLocalRandom.current());
+		}
+		catch (final RuntimeException e) {
+			stats.errors.increment();
+			log.debug("Erreur de l'opération {}", operation, e);
+		}
+		final long latency = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+		stats.histogram.recordValue(Math.min(latency, HIGHEST_LATENCY));
+	}
+
+	/**
+	 * Mesures d'une exécution de la charge.
+	 */
+	@Getter
+	public static class Result {
+
+		private final Duration duration;
+		private final Map<String, Stats> stats = new LinkedHashMap<>();
+		private final LongAdder dropped = new LongAdder();
+
+		Result(Workload workload, Duration duration) {
+			this.duration = duration;
+			workload.names().forEach(name -> stats.put(name, new Stats()));
+		}
+
+	}
+
+	/**
+	 * Mesures d'une opération : latences en microsecondes et nombre d'erreurs.
+	 */
+	@Getter
+	public static class Stats {
+
+		private final Histogram histogram = new ConcurrentHistogram(HIGHEST_LATENCY, 3);
+		private final LongAdder errors = new LongAdder();
+
+	}
+
+}
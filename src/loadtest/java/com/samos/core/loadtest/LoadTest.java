@@ -0,0 +1,138 @@
+package com.samos.core.loadtest;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Test de charge de bout en bout, piloté par les clients Feign générés
+ * ({@code mvn -Pload-test test-compile exec:java@load-test -Dloadtest.xxx=...}, cf README).
+ * <ol>
+ * <li>démarrage du bouchon de l'hébergeur d'images, dont l'url est transmise à
+ * l'application par la propriété nommée par {@code loadtest.photo-host.property} ;</li>
+ * <li>démarrage de l'application sur une base H2 embarquée si
+ * {@code loadtest.application-class} est renseignée, sinon utilisation du service
+ * {@code loadtest.target-url} ;</li>
+ * <li>génération du jeu de données ({@link DatasetGenerator}) ;</li>
+ * <li>préchauffage puis charge mesurée ({@link LoadDriver}) ;</li>
+ * <li>rapport ({@link LoadTestReport}).</li>
+ * </ol>
+ * Avec {@code loadtest.threading=compare}, ces étapes sont exécutées une fois avec les
+ * threads de plateforme puis une fois avec les threads virtuels
+ * ({@code spring.threads.virtual.enabled}), et les deux rapports sont comparés.
+ */
+@Slf4j
+public class LoadTest {
+
+	private static final String PLATFORM = "platform";
+	private static final String VIRTUAL = "virtual";
+	private static final String COMPARE = "compare";
+
+	private LoadTest() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		final LoadTestSettings settings = new LoadTestSettings();
+		final Path reportFolder = Path.of(settings.getReportFolder());
+		try (PhotoHostStub photoHost = new PhotoHostStub(settings.getPhotoHostPort())) {
+			if (!COMPARE.equals(settings.getThreading())) {
+				LoadTestReport.write(run(settings, photoHost, settings.getThreading()),
+						reportFolder);
+				return;
+			}
+
+			// Même jeu de données et même charge, sur une application redémarrée par mode
+			if (settings.getApplicationClass().isEmpty()) {
+				throw new IllegalArgumentException(
+						"loadtest.threading=compare nécessite loadtest.application-class");
+			}
+			final Map<String, LoadDriver.Result> results = new LinkedHashMap<>();
+			for (final String threading : List.of(PLATFORM, VIRTUAL)) {
+				final LoadDriver.Result result = run(settings, photoHost, threading);
+				LoadTestReport.write(result, reportFolder.resolve(threading));
+				results.put(threading, result);
+			}
+			LoadTestReport.compare(results, reportFolder);
+		}
+	}
+
+	/**
+	 * @param threading le mode d'exécution de l'application démarrée par le test
+	 *     ("platform" ou "virtual"), vide pour celui de sa configuration
+	 */
+	private static LoadDriver.Result run(LoadTestSettings settings, PhotoHostStub photoHost,
+			String threading) throws Exception {
+		try (ConfigurableApplicationContext application = start(settings, photoHost,
+				threading, Map.of())) {
+			final String targetUrl = application == null
+					? settings.getTargetUrl()
+					: "http://localhost:"
+							+ application.getEnvironment().getProperty("local.server.port");
+			log.info("Test de charge de {}{}", targetUrl,
+					threading.isEmpty() ? "" : " (threads " + threading + ")");
+
+			final Clients clients = new Clients(targetUrl, settings.getConcurrency());
+			final Dataset dataset = new DatasetGenerator(settings, clients).generate();
+			final Workload workload = new Workload(settings, clients, dataset);
+			final LoadDriver driver = new LoadDriver(workload, settings.getConcurrency(),
+					settings.getArrivalRate());
+
+			log.info("Préchauffage : {}", settings.getWarmUp());
+			driver.run(settings.getWarmUp());
+			log.info("Charge : {}, {} requêtes simultanées au plus, {} requêtes/s",
+					settings.getDuration(), settings.getConcurrency(),
+					settings.getArrivalRate() > 0 ? settings.getArrivalRate() : "max");
+			return driver.run(settings.getDuration());
+		}
+	}
+
+	/**
+	 * Démarre l'application sur la base embarquée, si {@code loadtest.application-class}
+	 * est renseignée.
+	 *
+	 * @param threading le mode d'exécution ("platform" ou "virtual"), vide pour celui de la
+	 *     configuration de l'application
+	 * @param extraProperties des propriétés supplémentaires de l'application
+	 * @return l'application démarrée, {@code null} pour un service déjà démarré
+	 */
+	static ConfigurableApplicationContext start(LoadTestSettings settings,
+			PhotoHostStub photoHost, String threading, Map<String, Object> extraProperties)
+			throws ClassNotFoundException {
+		if (settings.getApplicationClass().isEmpty()) {
+			log.info("Url de l'hébergeur d'images à configurer sur le service testé : {}",
+					photoHost.getUrl());
+			return null;
+		}
+		final Map<String, Object> properties = new HashMap<>(Map.of( //
+				"server.port", "0", //
+				"spring.datasource.url", settings.getDatasourceUrl(), //
+				"spring.jpa.hibernate.ddl-auto", "create", //
+				// Instance unique sur une base jetable : stockages en mémoire
+				"samos.photo-contents.store", "memory", //
+				"samos.booking-sheets.store", "memory", //
+				"samos.timing.sample-rate", "1"));
+		properties.putAll(extraProperties);
+		if (!threading.isEmpty()) {
+			properties.put("spring.threads.virtual.enabled",
+					String.valueOf(VIRTUAL.equals(threading)));
+		}
+		if (settings.getPhotoHostProperty().isEmpty()) {
+			log.warn("loadtest.photo-host.property non renseignée : l'application utilise son"
+					+ " hébergeur d'images, le bouchon {} n'est pas utilisé", photoHost.getUrl());
+		}
+		else {
+			properties.put(settings.getPhotoHostProperty(), photoHost.getUrl());
+		}
+		return new SpringApplicationBuilder(Class.forName(settings.getApplicationClass()))
+				.properties(properties)
+				.run();
+	}
+
+}
@@ -0,0 +1,113 @@
+package com.samos.core.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Rapport du test de charge : débit et percentiles de latence par opération, tracés et
+ * écrits dans {@code report.txt}, et histogrammes complets au format HdrHistogram log
+ * ({@code <operation>.hlog}, exploitables avec HistogramLogAnalyzer ou les outils
+ * HdrHistogram) dans {@code loadtest.report-folder}.
+ */
+@Slf4j
+public class LoadTestReport {
+
+	private static final String HEADER = String.format(Locale.ROOT,
+			"%-26s %9s %7s %9s %9s %9s %9s %9s %9s", "operation", "count", "errors", "req/s",
+			"p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+
+	private LoadTestReport() {
+	}
+
+	public static void write(LoadDriver.Result result, Path folder) throws IOException {
+		Files.createDirectories(folder);
+		final StringBuilder report = new StringBuilder(HEADER).append('\n');
+		final Histogram all = new Histogram(3);
+		long errors = 0;
+		for (final Map.Entry<String, LoadDriver.Stats> entry : result.getStats().entrySet()) {
+			final Histogram histogram = entry.getValue().getHistogram();
+			final long operationErrors = entry.getValue().getErrors().sum();
+			report.append(line(entry.getKey(), histogram, operationErrors, result)).append('\n');
+			all.add(histogram);
+			errors += operationErrors;
+			writeLog(folder.resolve(entry.getKey() + ".hlog"), histogram);
+		}
+		report.append(line("all", all, errors, result)).append('\n');
+		if (result.getDropped().sum() > 0) {
+			report.append("Arrivées abandonnées (file d'attente pleine) : ")
+					.append(result.getDropped().sum())
+					.append('\n');
+		}
+		writeLog(folder.resolve("all.hlog"), all);
+
+		Files.writeString(folder.resolve("report.txt"), report, StandardCharsets.UTF_8);
+		log.info("Résultats du test de charge ({} s) :\n{}", result.getDuration().toSeconds(),
+				report);
+	}
+
+	/**
+	 * Compare les résultats de plusieurs exécutions de la même charge (ex: threads de
+	 * plateforme et threads virtuels) : débit et percentiles par opération, côte à côte,
+	 * tracés et écrits dans {@code comparison.txt}.
+	 *
+	 * @param results les résultats, par nom d'exécution
+	 * @param folder le dossier du rapport
+	 */
+	public static void compare(Map<String, LoadDriver.Result> results, Path folder)
+			throws IOException {
+		Files.createDirectories(folder);
+		final StringBuilder report = new StringBuilder(String.format(Locale.ROOT,
+				"%-26s %-10s %9s %7s %9s %9s %9s %9s", "operation", "run", "req/s", "errors",
+				"p50 ms", "p99 ms", "p99.9 ms", "max ms")).append('\n');
+		final LoadDriver.Result first = results.values().iterator().next();
+		for (final String operation : first.getStats().keySet()) {
+			results.forEach((run, result) -> {
+				final LoadDriver.Stats stats = result.getStats().get(operation);
+				final Histogram histogram = stats.getHistogram();
+				report.append(String.format(Locale.ROOT,
+						"%-26s %-10s %9.1f %7d %9.2f %9.2f %9.2f %9.2f", operation, run,
+						histogram.getTotalCount() / (double) result.getDuration().toSeconds(),
+						stats.getErrors().sum(), millis(histogram, 50), millis(histogram, 99),
+						millis(histogram, 99.9), histogram.getMaxValue() / 1000.0))
+						.append('\n');
+			});
+		}
+		Files.writeString(folder.resolve("comparison.txt"), report, StandardCharsets.UTF_8);
+		log.info("Comparaison des exécutions {} :\n{}", results.keySet(), report);
+	}
+
+	private static String line(String operation, Histogram histogram, long errors,
+			LoadDriver.Result result) {
+		return String.format(Locale.ROOT, "%-26s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f",
+				operation, histogram.getTotalCount(), errors,
+				histogram.getTotalCount() / (double) result.getDuration().toSeconds(),
+				millis(histogram, 50), millis(histogram, 90), millis(histogram, 99),
+				millis(histogram, 99.9), histogram.getMaxValue() / 1000.0);
+	}
+
+	private static double millis(Histogram histogram, double percentile) {
+		return histogram.getValueAtPercentile(percentile) / 1000.0;
+	}
+
+	private static void writeLog(Path path, Histogram histogram) throws IOException {
+		try (PrintStream output = new PrintStream(Files.newOutputStream(path), false,
+				StandardCharsets.UTF_8)) {
+			final HistogramLogWriter writer = new HistogramLogWriter(output);
+			writer.outputComment("Latences en microsecondes");
+			writer.outputLogFormatVersion();
+			writer.outputLegend();
+			writer.outputIntervalHistogram(histogram);
+		}
+	}
+
+}
@@ -0,0 +1,95 @@
+package com.samos.core.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import lombok.Getter;
+
+/**
+ * Paramètres du test de charge, lus dans les propriétés système {@code loadtest.*}
+ * (cf README).
+ */
+@Getter
+public class LoadTestSettings {
+
+	private static final String PREFIX = "loadtest.";
+
+	/** Url du service testé (ignorée si l'application est démarrée par le test). */
+	private final String targetUrl = property("target-url", "http://localhost:8080");
+
+	/** Classe de l'application à démarrer sur une base embarquée, vide pour un service déjà démarré. */
+	private final String applicationClass = property("application-class", "");
+	private final String datasourceUrl = property("datasource-url",
+			"jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1;MODE=MySQL");
+
+	/** Port du bouchon de l'hébergeur d'images (0 : port libre). */
+	private final int photoHostPort = Integer.parseInt(property("photo-host.port", "0"));
+	/**
+	 * Propriété de l'application démarrée par le test qui reçoit l'url du bouchon (url de
+	 * l'hébergeur d'images de l'application, ex: {@code cloudinary.api-url}), vide si
+	 * l'application n'en a pas.
+	 */
+	private final String photoHostProperty = property("photo-host.property", "");
+
+	/**
+	 * Mode d'exécution de l'application démarrée par le test : {@code platform},
+	 * {@code virtual} (JDK 21+), {@code compare} (les deux, successivement) ou vide pour
+	 * celui de sa configuration.
+	 */
+	private final String threading = property("threading", "");
+
+	// Jeu de données
+	private final long seed = Long.parseLong(property("seed", "42"));
+	private final int groups = Integer.parseInt(property("groups", "2"));
+	private final int territoriesPerGroup = Integer.parseInt(property("territories-per-group", "1500"));
+	private final int bookingYears = Integer.parseInt(property("booking-years", "5"));
+	private final int bookingsPerTerritoryYear = Integer
+			.parseInt(property("bookings-per-territory-year", "3"));
+	private final int photosPerTerritory = Integer.parseInt(property("photos-per-territory", "2"));
+	/** Part des photos envoyées dont le contenu est déjà envoyé (0 à 1). */
+	private final double duplicatePhotoRatio = Double
+			.parseDouble(property("duplicate-photo-ratio", "0.3"));
+	private final int photoSize = Integer.parseInt(property("photo-size", "65536"));
+	/** Ids des villes et contacts existants (sans endpoint de création). */
+	private final List<Integer> cityIds = ids(property("city-ids", "1"));
+	private final List<Integer> contactIds = ids(property("contact-ids", "1"));
+
+	// Charge
+	/** Nombre maximum de requêtes simultanées. */
+	private final int concurrency = Integer.parseInt(property("concurrency", "32"));
+	/** Requêtes par seconde (modèle ouvert), 0 pour enchaîner les requêtes (modèle fermé). */
+	private final double arrivalRate = Double.parseDouble(property("arrival-rate", "200"));
+	private final Duration warmUp = DurationStyle.detectAndParse(property("warm-up", "30s"));
+	private final Duration duration = DurationStyle.detectAndParse(property("duration", "2m"));
+	/** Répartition des opérations, en poids relatifs. */
+	private final Map<String, Integer> mix = mix(property("mix",
+			"getTerritory=30,getTerritories=10,getTerritoryAddresses=10,getTerritoryPhotos=10,"
+					+ "getReservations=15,searchGroupAddresses=10,addReservation=5,"
+					+ "createUpdatePhoto=5,bookingsExport=3,territoryToBuild=2"));
+
+	/** Dossier des histogrammes (format HdrHistogram log) et du rapport. */
+	private final String reportFolder = property("report-folder", "target/loadtest");
+
+	private static String property(String name, String defaultValue) {
+		return System.getProperty(PREFIX + name, defaultValue);
+	}
+
+	private static List<Integer> ids(String value) {
+		return Arrays.stream(value.split(",")).map(String::trim).map(Integer::valueOf).toList();
+	}
+
+	private static Map<String, Integer> mix(String value) {
+		final Map<String, Integer> weights = new LinkedHashMap<>();
+		for (final String entry : value.split(",")) {
+			final String[] operation = entry.split("=");
+			weights.put(operation[0].trim(), Integer.valueOf(operation[1].trim()));
+		}
+		return weights;
+	}
+
+}
@@ -0,0 +1,98 @@
+package com.samos.core.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.samos.core.photo.ContentHash;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bouchon local de l'hébergeur d'images, pour un test de charge sans accès réseau.
+ * <ul>
+ * <li>{@code POST /upload} : retourne l'identifiant (empreinte du contenu) et les urls
+ * des déclinaisons ;</li>
+ * <li>{@code GET /images/**} : retourne une image de 1 Ko ;</li>
+ * <li>{@code DELETE /images/**} : sans effet.</li>
+ * </ul>
+ * Les volumes reçus sont tracés à l'arrêt, pour mesurer l'effet de la déduplication des
+ * contenus.
+ */
+@Slf4j
+public class PhotoHostStub implements AutoCloseable {
+
+	private static final byte[] IMAGE = new byte[1024];
+
+	private final HttpServer server;
+	private final AtomicLong uploads = new AtomicLong();
+	private final AtomicLong uploadedBytes = new AtomicLong();
+	private final AtomicLong downloads = new AtomicLong();
+
+	public PhotoHostStub(int port) throws IOException {
+		server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+		server.createContext("/upload", this::upload);
+		server.createContext("/images", this::image);
+		server.setExecutor(Executors.newCachedThreadPool());
+		server.start();
+		log.info("Bouchon de l'hébergeur d'images démarré : {}", getUrl());
+	}
+
+	/**
+	 * @return l'url du bouchon
+	 */
+	public String getUrl() {
+		return "http://localhost:" + server.getAddress().getPort();
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+		log.info("Hébergeur d'images : {} envois ({} octets), {} téléchargements", uploads.get(),
+				uploadedBytes.get(), downloads.get());
+	}
+
+	private void upload(HttpExchange exchange) throws IOException {
+		final byte[] content;
+		try (InputStream body = exchange.getRequestBody()) {
+			content = body.readAllBytes();
+		}
+		uploads.incrementAndGet();
+		uploadedBytes.addAndGet(content.length);
+
+		final String id = ContentHash.sha256(content);
+		final String url = getUrl() + "/images/" + id;
+		final String json = "{\"public_id\":\"" + id + "\",\"bytes\":" + content.length
+				+ ",\"secure_url\":\"" + url + "\",\"eager\":[" //
+				+ "{\"transformation\":\"large\",\"secure_url\":\"" + url + "/large\"}," //
+				+ "{\"transformation\":\"medium\",\"secure_url\":\"" + url + "/medium\"}," //
+				+ "{\"transformation\":\"small\",\"secure_url\":\"" + url + "/small\"}," //
+				+ "{\"transformation\":\"thumbnail\",\"secure_url\":\"" + url + "/thumbnail\"}]}";
+		exchange.getResponseHeaders().set("Content-Type", "application/json");
+		send(exchange, 200, json.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private void image(HttpExchange exchange) throws IOException {
+		if ("DELETE".equals(exchange.getRequestMethod())) {
+			send(exchange, 200, "{\"result\":\"ok\"}".getBytes(StandardCharsets.UTF_8));
+			return;
+		}
+		downloads.incrementAndGet();
+		exchange.getResponseHeaders().set("Content-Type", "image/jpeg");
+		send(exchange, 200, IMAGE);
+	}
+
+	private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+		exchange.sendResponseHeaders(status, body.length);
+		try (OutputStream output = exchange.getResponseBody()) {
+			output.write(body);
+		}
+	}
+
+}
@@ -0,0 +1,100 @@
+package com.samos.core.loadtest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.samos.core.client.BinaryContentClients;
+import com.samos.core.feign.ApiClient;
+import com.samos.core.feign.handler.TerritoriesApi;
+import com.samos.core.feign.model.ApiResponse;
+import com.samos.core.feign.model.Booking;
+import com.samos.core.loadtest.benchmark.Payloads;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Vérification de la négociation Smile des clients Feign générés
+ * ({@code mvn -Pload-test test-compile exec:java@smile-check}, cf README).
+ * <p>
+ * Un serveur local répond à {@code GET /v1/resources/territories/{id}/bookings}
+ * (opération générée avec {@code Accept: application/json,application/x-jackson-smile})
+ * en Smile si l'entête Accept reçu le propose en premier, en JSON sinon. La vérification
+ * échoue si le client activé par {@link BinaryContentClients} ne demande pas Smile, si
+ * la réponse n'est pas en Smile ou si la liste décodée diffère de la liste envoyée.
+ */
+@Slf4j
+public class SmileNegotiationCheck {
+
+	private static final String PATH = "/v1/resources/territories/1/bookings";
+
+	private static final int SIZE = 100;
+
+	private SmileNegotiationCheck() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		final ApiClient apiClient = new ApiClient();
+		final ObjectMapper jsonMapper = apiClient.getObjectMapper();
+		final ObjectMapper smileMapper = jsonMapper.copyWith(new SmileFactory());
+		final List<?> bookings = Payloads.list("bookings", SIZE);
+		final AtomicReference<String> accept = new AtomicReference<>();
+		final AtomicReference<String> contentType = new AtomicReference<>();
+
+		final HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext(PATH, exchange -> {
+			accept.set(exchange.getRequestHeaders().getFirst("Accept"));
+			final boolean smile = accept.get() != null
+					&& accept.get().startsWith(BinaryContentClients.APPLICATION_SMILE);
+			contentType.set(smile ? BinaryContentClients.APPLICATION_SMILE : "application/json");
+			send(exchange, contentType.get(), smile ? smileMapper.writeValueAsBytes(bookings)
+					: jsonMapper.writeValueAsBytes(bookings));
+		});
+		server.start();
+		try {
+			final TerritoriesApi territoriesApi = BinaryContentClients
+					.enable(apiClient.setBasePath("http://localhost:"
+							+ server.getAddress().getPort()))
+					.buildClient(TerritoriesApi.class);
+
+			check("getReservations", territoriesApi.getReservations(1), accept.get(),
+					contentType.get());
+			final ApiResponse<List<Booking>> response = territoriesApi
+					.getReservationsWithHttpInfo(1);
+			check("getReservationsWithHttpInfo", response.getData(), accept.get(),
+					contentType.get());
+		}
+		finally {
+			server.stop(0);
+		}
+	}
+
+	private static void check(String operation, List<Booking> decoded, String accept,
+			String contentType) {
+		if (!BinaryContentClients.APPLICATION_SMILE.equals(contentType)) {
+			throw new AssertionError(operation + " : Smile non demandé (Accept: " + accept + ")");
+		}
+		if (decoded == null || decoded.size() != SIZE || decoded.get(0).getId() == null) {
+			throw new AssertionError(operation + " : réponse Smile mal décodée : "
+					+ (decoded == null ? null : decoded.size() + " éléments"));
+		}
+		log.info("{} : Accept {}, {} réservations décodées depuis Smile", operation, accept,
+				decoded.size());
+	}
+
+	private static void send(HttpExchange exchange, String contentType, byte[] body)
+			throws IOException {
+		exchange.getResponseHeaders().set("Content-Type", contentType);
+		exchange.sendResponseHeaders(200, body.length);
+		try (OutputStream output = exchange.getResponseBody()) {
+			output.write(body);
+		}
+	}
+
+}
@@ -0,0 +1,136 @@
+package com.samos.core.loadtest;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.samos.core.feign.model.ApiResponse;
+import com.samos.core.feign.model.BatchIds;
+import com.samos.core.jpa.SqlStatementCounter;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Tests du nombre de requêtes SQL par endpoint
+ * ({@code mvn -Pload-test test-compile exec:java@sql-budgets
+ * -Dloadtest.application-class=...}, cf README).
+ * <p>
+ * L'application est démarrée sur la base embarquée avec
+ * {@code samos.jpa.count-statements=true} : chaque réponse porte le nombre de requêtes
+ * SQL émises par le serveur (entête {@value SqlStatementCounter#HEADER}). Le jeu de
+ * données donne 500 attributions par territoire ; chaque endpoint de liste doit rester
+ * sous son budget ({@code loadtest.sql-budget.<operation>}), quelle que soit la taille
+ * de la liste. Le test échoue si un budget est dépassé.
+ */
+@Slf4j
+public class SqlStatementBudgets {
+
+	/** Budgets par défaut : une requête pour la liste, quelques unes pour les associations. */
+	private static final int DEFAULT_BUDGET = 5;
+
+	private SqlStatementBudgets() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		// Volumes du jeu de données, sauf valeurs explicites
+		defaultProperty("groups", "1");
+		defaultProperty("territories-per-group", "10");
+		defaultProperty("booking-years", "5");
+		defaultProperty("bookings-per-territory-year", "100");
+		defaultProperty("photos-per-territory", "3");
+		final LoadTestSettings settings = new LoadTestSettings();
+		if (settings.getApplicationClass().isEmpty()) {
+			throw new IllegalArgumentException(
+					"Les tests du nombre de requêtes SQL nécessitent loadtest.application-class");
+		}
+
+		try (PhotoHostStub photoHost = new PhotoHostStub(settings.getPhotoHostPort());
+				ConfigurableApplicationContext application = LoadTest.start(settings,
+						photoHost, "", Map.of("samos.jpa.count-statements", "true"))) {
+			final Clients clients = new Clients("http://localhost"
+					+ ":" + application.getEnvironment().getProperty("local.server.port"),
+					settings.getConcurrency());
+			final Dataset dataset = new DatasetGenerator(settings, clients).generate();
+			check(checks(clients, dataset));
+		}
+	}
+
+	private static Map<String, Supplier<ApiResponse<?>>> checks(Clients clients,
+			Dataset dataset) {
+		final Integer groupId = dataset.getGroupIds().get(0);
+		final Integer territoryId = dataset.getTerritoryIds().get(0);
+		final BatchIds territoryIds = new BatchIds().ids(dataset.getTerritoryIds());
+		final BatchIds photoIds = new BatchIds().ids(dataset.getPhotoIds());
+
+		final Map<String, Supplier<ApiResponse<?>>> checks = new LinkedHashMap<>();
+		checks.put("getTerritory",
+				() -> clients.getTerritoriesApi().getTerritoryWithHttpInfo(territoryId));
+		checks.put("getTerritories",
+				() -> clients.getGroupsApi().getTerritoriesWithHttpInfo(groupId));
+		checks.put("getTerritoryAddresses",
+				() -> clients.getTerritoriesApi().getTerritoryAddressesWithHttpInfo(territoryId));
+		checks.put("getTerritoryPhotos",
+				() -> clients.getTerritoriesApi().getTerritoryPhotosWithHttpInfo(territoryId));
+		checks.put("getReservations",
+				() -> clients.getTerritoriesApi().getReservationsWithHttpInfo(territoryId));
+		checks.put("getTerritoriesByIds",
+				() -> clients.getTerritoriesApi().getTerritoriesByIdsWithHttpInfo(territoryIds));
+		checks.put("getTerritoriesPhotos",
+				() -> clients.getTerritoriesApi().getTerritoriesPhotosWithHttpInfo(territoryIds));
+		checks.put("getPhotosByIds",
+				() -> clients.getPhotosApi().getPhotosByIdsWithHttpInfo(photoIds));
+		return checks;
+	}
+
+	private static void check(Map<String, Supplier<ApiResponse<?>>> checks) {
+		final StringBuilder report = new StringBuilder(String.format(Locale.ROOT,
+				"%-26s %10s %7s %s", "operation", "statements", "budget", "result")).append('\n');
+		final List<String> failures = new ArrayList<>();
+		checks.forEach((operation, call) -> {
+			final int budget = Integer.parseInt(System.getProperty(
+					"loadtest.sql-budget." + operation, String.valueOf(DEFAULT_BUDGET)));
+			final Integer statements = statements(call.get());
+			final String result;
+			if (statements == null) {
+				result = "entête " + SqlStatementCounter.HEADER + " absent";
+			}
+			else {
+				result = statements <= budget ? "ok" : "dépassé";
+			}
+			if (!"ok".equals(result)) {
+				failures.add(operation + " : " + result);
+			}
+			report.append(String.format(Locale.ROOT, "%-26s %10s %7d %s", operation,
+					statements != null ? statements : "-", budget, result)).append('\n');
+		});
+
+		log.info("Requêtes SQL par endpoint :\n{}", report);
+		if (!failures.isEmpty()) {
+			throw new AssertionError("Budgets de requêtes SQL non respectés : " + failures);
+		}
+	}
+
+	private static Integer statements(ApiResponse<?> response) {
+		for (final Map.Entry<String, Collection<String>> header : response.getHeaders()
+				.entrySet()) {
+			if (SqlStatementCounter.HEADER.equalsIgnoreCase(header.getKey())
+					&& !header.getValue().isEmpty()) {
+				return Integer.valueOf(header.getValue().iterator().next());
+			}
+		}
+		return null;
+	}
+
+	private static void defaultProperty(String name, String value) {
+		if (System.getProperty("loadtest." + name) == null) {
+			System.setProperty("loadtest." + name, value);
+		}
+	}
+
+}
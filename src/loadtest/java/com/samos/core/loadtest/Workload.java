@@ -0,0 +1,141 @@
+package com.samos.core.loadtest;
+
+import java.io.File;
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import com.samos.core.feign.model.BookingIn;
+import com.samos.core.feign.model.PhotoIn;
+
+/**
+ * Répartition des opérations du test de charge ({@code loadtest.mix}) : chaque appel
+ * tire une opération selon son poids, puis ses paramètres dans le {@link Dataset}.
+ */
+public class Workload {
+
+	private static final List<String> ADDRESS_QUERIES = List.of("rue", "av", "bd", "place", "1",
+			"2 rue", "chemin", "allee", "10", "imp");
+
+	private final Map<String, Operation> operations = new LinkedHashMap<>();
+	private final String[] names;
+	private final int[] cumulativeWeights;
+
+	public Workload(LoadTestSettings settings, Clients clients, Dataset dataset) {
+		final Map<String, Operation> available = available(settings, clients, dataset);
+		names = new String[settings.getMix().size()];
+		cumulativeWeights = new int[names.length];
+		int total = 0;
+		int i = 0;
+		for (final Map.Entry<String, Integer> entry : settings.getMix().entrySet()) {
+			final Operation operation = available.get(entry.getKey());
+			if (operation == null) {
+				throw new IllegalArgumentException("Opération inconnue : " + entry.getKey()
+						+ " (opérations disponibles : " + available.keySet() + ")");
+			}
+			operations.put(entry.getKey(), operation);
+			total += entry.getValue();
+			names[i] = entry.getKey();
+			cumulativeWeights[i++] = total;
+		}
+	}
+
+	/**
+	 * @return les noms des opérations de la répartition
+	 */
+	public List<String> names() {
+		return List.of(names);
+	}
+
+	/**
+	 * @param random le générateur du thread appelant
+	 * @return le nom de l'opération tirée selon les poids
+	 */
+	public String next(Random random) {
+		final int draw = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+		for (int i = 0; i < cumulativeWeights.length; i++) {
+			if (draw < cumulativeWeights[i]) {
+				return names[i];
+			}
+		}
+		throw new IllegalStateException();
+	}
+
+	/**
+	 * @param name le nom de l'opération
+	 * @param random le générateur du thread appelant
+	 */
+	public void execute(String name, Random random) {
+		operations.get(name).execute(random);
+	}
+
+	private static Map<String, Operation> available(LoadTestSettings settings, Clients clients,
+			Dataset dataset) {
+		final Map<String, Operation> available = new LinkedHashMap<>();
+		available.put("getTerritory",
+				random -> clients.getTerritoriesApi().getTerritory(dataset.territoryId(random)));
+		available.put("getTerritories",
+				random -> clients.getGroupsApi().getTerritories(dataset.groupId(random)));
+		available.put("getTerritoryAddresses", random -> clients.getTerritoriesApi()
+				.getTerritoryAddresses(dataset.territoryId(random)));
+		available.put("getTerritoryPhotos", random -> clients.getTerritoriesApi()
+				.getTerritoryPhotos(dataset.territoryId(random)));
+		available.put("getReservations",
+				random -> clients.getTerritoriesApi().getReservations(dataset.territoryId(random)));
+		available.put("getReservation", random -> clients.getBookingsApi()
+				.getReservation(Dataset.pick(dataset.getBookingIds(), random)));
+		available.put("getPhoto", random -> clients.getPhotosApi()
+				.getPhoto(Dataset.pick(dataset.getPhotoIds(), random)));
+		available.put("searchGroupAddresses", random -> clients.getGroupsApi()
+				.searchGroupAddresses(dataset.groupId(random),
+						Dataset.pick(ADDRESS_QUERIES, random), 20));
+		available.put("addReservation", random -> {
+			final LocalDate startDate = LocalDate.now().minusDays(random.nextInt(60));
+			clients.getBookingsApi()
+					.addReservation(new BookingIn().territory(dataset.territoryId(random))
+							.contact(Dataset.pick(settings.getContactIds(), random))
+							.startDate(startDate)
+							.endDate(startDate.plusDays(30)));
+		});
+		available.put("createUpdatePhoto", random -> {
+			final byte[] blob = new byte[settings.getPhotoSize()];
+			// Une photo sur deux reprend un contenu déjà envoyé
+			new Random(random.nextBoolean() ? random.nextInt(100) : random.nextLong()).nextBytes(blob);
+			clients.getPhotosApi()
+					.createUpdatePhoto(new PhotoIn().territory(dataset.territoryId(random))
+							.name("Photo de charge")
+							.format(PhotoIn.FormatEnum.A5)
+							.orientation(PhotoIn.OrientationEnum.LANDSCAPE)
+							.type(PhotoIn.TypeEnum.COPY_WITH_CONTEXT)
+							.face(PhotoIn.FaceEnum.FRONT)
+							.blob(blob)
+							.active(1));
+		});
+		available.put("bookingsExport", random -> delete(clients.getBookingsApi()
+				.bookingsExport(2, dataset.groupId(random), null, dataset.year(random))));
+		available.put("bookingsExportCurrentYear", random -> delete(clients.getBookingsApi()
+				.bookingsExport(2, dataset.groupId(random), null, Year.now().getValue())));
+		available.put("territoryToBuild", random -> delete(clients.getTerritoriesApi()
+				.territoryToBuild(dataset.territoryId(random), "A5")));
+		return available;
+	}
+
+	/**
+	 * Les exports sont décodés dans des fichiers temporaires.
+	 */
+	private static void delete(File file) {
+		if (file != null) {
+			file.delete(); // NOSONAR
+		}
+	}
+
+	@FunctionalInterface
+	interface Operation {
+
+		void execute(Random random);
+	}
+
+}
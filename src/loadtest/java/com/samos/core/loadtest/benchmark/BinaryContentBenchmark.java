@@ -0,0 +1,87 @@
+package com.samos.core.loadtest.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Taille des réponses et temps d'encodage / décodage des listes en JSON et en Smile
+ * ({@code BinaryContentConfiguration}, {@code BinaryContentClients}) :
+ * {@code mvn -Pload-test test-compile exec:exec@benchmarks -Dbenchmarks=BinaryContentBenchmark}.
+ * <p>
+ * Les mappers sont construits comme ceux de l'application, par
+ * {@link Jackson2ObjectMapperBuilder}. La taille des réponses de chaque liste est tracée
+ * au démarrage de chaque fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BinaryContentBenchmark {
+
+	@Param({ "territories", "bookings", "photos" })
+	private String list;
+
+	@Param({ "100", "1000" })
+	private int size;
+
+	private ObjectMapper jsonMapper;
+	private ObjectMapper smileMapper;
+	private JavaType listType;
+	private List<?> payload;
+	private byte[] json;
+	private byte[] smile;
+
+	@Setup
+	public void setUp() throws IOException {
+		jsonMapper = Jackson2ObjectMapperBuilder.json().build();
+		smileMapper = Jackson2ObjectMapperBuilder.smile().build();
+		listType = jsonMapper.getTypeFactory().constructCollectionType(List.class,
+				Payloads.type(list));
+		payload = Payloads.list(list, size);
+		json = jsonMapper.writeValueAsBytes(payload);
+		smile = smileMapper.writeValueAsBytes(payload);
+		System.out.printf(Locale.ROOT, "%n%s x %d : JSON %d octets, Smile %d octets (%.0f %%)%n",
+				list, size, json.length, smile.length, 100.0 * smile.length / json.length);
+	}
+
+	@Benchmark
+	public byte[] encodeJson() throws IOException {
+		return jsonMapper.writeValueAsBytes(payload);
+	}
+
+	@Benchmark
+	public byte[] encodeSmile() throws IOException {
+		return smileMapper.writeValueAsBytes(payload);
+	}
+
+	@Benchmark
+	public Object decodeJson() throws IOException {
+		return jsonMapper.readValue(json, listType);
+	}
+
+	@Benchmark
+	public Object decodeSmile() throws IOException {
+		return smileMapper.readValue(smile, listType);
+	}
+
+}
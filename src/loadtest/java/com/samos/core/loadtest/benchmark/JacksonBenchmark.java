@@ -0,0 +1,103 @@
+package com.samos.core.loadtest.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+/**
+ * Sérialisation des listes de territoires, réservations et photos, par réflexion ou avec
+ * le module Blackbird ({@code JacksonConfiguration}) :
+ * {@code mvn -Pload-test test-compile exec:exec@benchmarks -Dbenchmarks=JacksonBenchmark}.
+ * <p>
+ * {@code serialize} et {@code deserialize} mesurent un mapper préparé ; {@code firstSerialization}
+ * mesure la première sérialisation d'un mapper neuf, qui résout ses sérialiseurs : le
+ * coût évité aux premières requêtes par {@code JacksonWarmUp}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class JacksonBenchmark {
+
+	@Param({ "reflection", "blackbird" })
+	private String accessors;
+
+	@Param({ "territories", "bookings", "photos" })
+	private String list;
+
+	@Param({ "1000" })
+	private int size;
+
+	private ObjectMapper objectMapper;
+	private JavaType listType;
+	private List<?> payload;
+	private byte[] json;
+
+	@Setup
+	public void setUp() throws IOException {
+		objectMapper = objectMapper();
+		listType = objectMapper.getTypeFactory().constructCollectionType(List.class,
+				Payloads.type(list));
+		payload = Payloads.list(list, size);
+		json = objectMapper.writeValueAsBytes(payload);
+	}
+
+	ObjectMapper objectMapper() {
+		final Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+		if ("blackbird".equals(accessors)) {
+			builder.modulesToInstall(new BlackbirdModule());
+		}
+		return builder.build();
+	}
+
+	/** Mapper neuf pour chaque appel, sans sérialiseur résolu. */
+	@State(Scope.Thread)
+	public static class ColdMapper {
+
+		private ObjectMapper objectMapper;
+
+		@Setup(Level.Invocation)
+		public void setUp(JacksonBenchmark benchmark) {
+			objectMapper = benchmark.objectMapper();
+		}
+	}
+
+	@Benchmark
+	public byte[] serialize() throws IOException {
+		return objectMapper.writeValueAsBytes(payload);
+	}
+
+	@Benchmark
+	public Object deserialize() throws IOException {
+		return objectMapper.readValue(json, listType);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@Warmup(iterations = 20)
+	@Measurement(iterations = 50)
+	public byte[] firstSerialization(ColdMapper coldMapper) throws IOException {
+		return coldMapper.objectMapper.writeValueAsBytes(payload);
+	}
+
+}
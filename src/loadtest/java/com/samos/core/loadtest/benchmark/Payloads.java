@@ -0,0 +1,135 @@
+package com.samos.core.loadtest.benchmark;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.samos.core.spring.model.Booking;
+import com.samos.core.spring.model.City;
+import com.samos.core.spring.model.Contact;
+import com.samos.core.spring.model.Event;
+import com.samos.core.spring.model.Group;
+import com.samos.core.spring.model.Photo;
+import com.samos.core.spring.model.Territory;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Listes reproductibles de territoires, réservations et photos, de la forme des réponses
+ * des endpoints de liste, pour les benchmarks de sérialisation.
+ */
+@UtilityClass
+public class Payloads {
+
+	/** Les listes mesurées, par nom de paramètre JMH. */
+	public static List<?> list(String name, int size) {
+		final Random random = new Random(42);
+		return switch (name) {
+			case "territories" -> territories(random, size);
+			case "bookings" -> bookings(random, size);
+			case "photos" -> photos(random, size);
+			default -> throw new IllegalArgumentException("Liste inconnue : " + name);
+		};
+	}
+
+	public static Class<?> type(String name) {
+		return switch (name) {
+			case "territories" -> Territory.class;
+			case "bookings" -> Booking.class;
+			case "photos" -> Photo.class;
+			default -> throw new IllegalArgumentException("Liste inconnue : " + name);
+		};
+	}
+
+	static List<Territory> territories(Random random, int size) {
+		final Group group = group();
+		final List<Territory> territories = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			territories.add(territory(random, group, i));
+		}
+		return territories;
+	}
+
+	static List<Booking> bookings(Random random, int size) {
+		final Group group = group();
+		final Territory territory = territory(random, group, 1);
+		final LocalDate start = LocalDate.of(2020, 1, 1);
+		final List<Booking> bookings = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			final LocalDate startDate = start.plusDays(random.nextInt(5 * 365));
+			bookings.add(new Booking() //
+					.id(i + 1) //
+					.territory(territory) //
+					.event(new Event().id(1 + random.nextInt(10)).group(group)
+							.name("Campagne " + random.nextInt(10)).startDate(start)
+							.endDate(start.plusMonths(1)).status(1)) //
+					.contact(new Contact().id(1 + random.nextInt(200)).group(group).title(1)
+							.firstName("Prénom" + random.nextInt(200))
+							.lastName("Nom" + random.nextInt(200))
+							.email("contact" + random.nextInt(200) + "@example.org")
+							.mobilePhoneNumber("06" + (10000000 + random.nextInt(89999999))))
+					.startDate(startDate) //
+					.endDate(startDate.plusMonths(4)) //
+					.nbEmailsBookingSended(random.nextInt(3)) //
+					.nbEmailsLateSended(random.nextInt(3)) //
+					.nbMessagesWhatsappBookingSended(random.nextInt(3)) //
+					.nbMessagesWhatsappBookingLateSended(random.nextInt(3)) //
+					.nbMessagesSignalBookingSended(random.nextInt(3)) //
+					.nbMessagesSignalBookingLateSended(random.nextInt(3)));
+		}
+		return bookings;
+	}
+
+	static List<Photo> photos(Random random, int size) {
+		final Group group = group();
+		final List<Photo> photos = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			final String id = "territories/" + Long.toHexString(random.nextLong());
+			final String url = "https://res.cloudinary.com/samos/image/upload/";
+			photos.add(new Photo() //
+					.id(i + 1) //
+					.territory(territory(random, group, i / 2)) //
+					.name("plan-" + i + ".jpg") //
+					.format(random.nextInt(3)) //
+					.orientation(random.nextInt(2)) //
+					.type(random.nextInt(3)) //
+					.face(random.nextInt(2)) //
+					.cloudinaryId(id) //
+					.contentHash(Long.toHexString(random.nextLong())
+							+ Long.toHexString(random.nextLong())) //
+					.originalUrl(url + id + ".jpg") //
+					.largeUrl(url + "w_1600/" + id + ".jpg") //
+					.mediumUrl(url + "w_800/" + id + ".jpg") //
+					.smallUrl(url + "w_400/" + id + ".jpg") //
+					.thumbnailUrl(url + "w_150/" + id + ".jpg") //
+					.active(1));
+		}
+		return photos;
+	}
+
+	private static Group group() {
+		return new Group().id(1).code("G1").name("Assemblée 1")
+				.coordinates("48.8566,2.3522");
+	}
+
+	private static Territory territory(Random random, Group group, int index) {
+		final StringBuilder coordinates = new StringBuilder();
+		for (int point = 0; point < 12; point++) {
+			coordinates.append(point == 0 ? "" : ";")
+					.append(48.8 + random.nextDouble() / 10).append(',')
+					.append(2.3 + random.nextDouble() / 10);
+		}
+		return new Territory() //
+				.id(index + 1) //
+				.group(group) //
+				.number(String.valueOf(index + 1)) //
+				.name("Territoire " + (index + 1)) //
+				.city(new City().id(1 + random.nextInt(20)).zipCode(75001 + random.nextInt(20))
+						.name("Paris")) //
+				.coordinates(coordinates.toString()) //
+				.status(random.nextInt(3)) //
+				.active(Boolean.TRUE);
+	}
+
+}
@@ -0,0 +1,118 @@
+package com.samos.core.batch;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import com.samos.core.spring.model.City;
+import com.samos.core.spring.model.Group;
+import com.samos.core.spring.model.Photo;
+import com.samos.core.spring.model.PhotoBatch;
+import com.samos.core.spring.model.Territory;
+import com.samos.core.spring.model.TerritoryBatch;
+import com.samos.core.spring.model.TerritoryPhotosBatch;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Construction des réponses des lectures groupées (getTerritoriesByIds, getPhotosByIds,
+ * getTerritoriesPhotos).
+ * <p>
+ * Les références partagées (territoires des photos, assemblées et villes des
+ * territoires) ne sont transmises qu'une fois, dans les maps dédiées de la réponse :
+ * dans les éléments, elles sont remplacées par une référence ne contenant que leur id.
+ * Les éléments transmis sont donc modifiés : ils doivent être propres à la réponse (ex:
+ * issus du mapping des entités), pas partagés.
+ *
+ * <pre>
+ * <code class='java'>
+ * final Map&lt;Integer, Territory&gt; territories = InQueries.findByIds(batchIds.getIds(), ...);
+ * return ResponseEntity.ok(BatchResponses.territories(territoryMapper.map(territories.values())));
+ * </code>
+ * </pre>
+ */
+@UtilityClass
+public class BatchResponses {
+
+	/**
+	 * @param territories les territoires trouvés
+	 * @return la réponse de getTerritoriesByIds
+	 */
+	public static TerritoryBatch territories(Collection<Territory> territories) {
+		final TerritoryBatch batch = new TerritoryBatch();
+		for (final Territory territory : territories) {
+			batch.putTerritoriesItem(key(territory.getId()),
+					share(territory, batch.getGroups(), batch.getCities()));
+		}
+		return batch;
+	}
+
+	/**
+	 * @param photos les photos trouvées
+	 * @return la réponse de getPhotosByIds
+	 */
+	public static PhotoBatch photos(Collection<Photo> photos) {
+		final PhotoBatch batch = new PhotoBatch();
+		for (final Photo photo : photos) {
+			photo.setTerritory(shareTerritory(photo.getTerritory(), batch.getTerritories(),
+					batch.getGroups(), batch.getCities()));
+			batch.putPhotosItem(key(photo.getId()), photo);
+		}
+		return batch;
+	}
+
+	/**
+	 * @param photosByTerritory les photos trouvées, par id de territoire
+	 * @return la réponse de getTerritoriesPhotos
+	 */
+	public static TerritoryPhotosBatch territoriesPhotos(Map<Integer, List<Photo>> photosByTerritory) {
+		final TerritoryPhotosBatch batch = new TerritoryPhotosBatch();
+		photosByTerritory.forEach((territoryId, photos) -> {
+			for (final Photo photo : photos) {
+				photo.setTerritory(shareTerritory(photo.getTerritory(), batch.getTerritories(),
+						batch.getGroups(), batch.getCities()));
+			}
+			batch.putPhotosItem(key(territoryId), photos);
+		});
+		return batch;
+	}
+
+	/**
+	 * Clé des maps de la réponse (les clés des objets JSON sont des chaînes).
+	 */
+	private static String key(Integer id) {
+		return String.valueOf(id);
+	}
+
+	private static Territory shareTerritory(Territory territory, Map<String, Territory> territories,
+			Map<String, Group> groups, Map<String, City> cities) {
+		if (territory == null || territory.getId() == null) {
+			return territory;
+		}
+		territories.computeIfAbsent(key(territory.getId()), id -> share(territory, groups, cities));
+		return new Territory().id(territory.getId());
+	}
+
+	/**
+	 * Déplace l'assemblée et la ville du territoire (et de son territoire parent) dans
+	 * les maps de la réponse.
+	 */
+	private static Territory share(Territory territory, Map<String, Group> groups,
+			Map<String, City> cities) {
+		final Group group = territory.getGroup();
+		if (group != null && group.getId() != null) {
+			groups.putIfAbsent(key(group.getId()), group);
+			territory.setGroup(new Group().id(group.getId()));
+		}
+		final City city = territory.getCity();
+		if (city != null && city.getId() != null) {
+			cities.putIfAbsent(key(city.getId()), city);
+			territory.setCity(new City().id(city.getId()));
+		}
+		if (territory.getParent() != null) {
+			share(territory.getParent(), groups, cities);
+		}
+		return territory;
+	}
+
+}
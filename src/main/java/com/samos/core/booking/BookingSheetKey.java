@@ -0,0 +1,16 @@
+package com.samos.core.booking;
+
+import lombok.Value;
+
+/**
+ * Identifiant d'une fiche S-13 : assemblée, ville (ou toutes les villes de
+ * l'assemblée si {@code null}) et année.
+ */
+@Value(staticConstructor = "of")
+public class BookingSheetKey {
+
+	Integer groupId;
+	Integer cityId;
+	int year;
+
+}
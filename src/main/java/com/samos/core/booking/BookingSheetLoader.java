@@ -0,0 +1,61 @@
+package com.samos.core.booking;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Set;
+
+import com.samos.core.spring.model.edition.BookingTerritoryBeanResource;
+
+/**
+ * Calcul des lignes d'une fiche S-13 à partir des réservations.
+ */
+@FunctionalInterface
+public interface BookingSheetLoader {
+
+	/** Ordre par défaut des lignes : ville puis nom du territoire. */
+	Comparator<BookingTerritoryBeanResource> CITY_AND_TERRITORY = Comparator
+			.comparing(BookingTerritoryBeanResource::getCityName,
+					Comparator.nullsLast(Comparator.naturalOrder()))
+			.thenComparing(BookingTerritoryBeanResource::getTerritoryName,
+					Comparator.nullsLast(Comparator.naturalOrder()));
+
+	/**
+	 * @param key l'identifiant de la fiche
+	 * @param territoryIds les ids des territoires à calculer, ou {@code null} pour tous
+	 *     les territoires de la fiche
+	 * @return les lignes calculées par id de territoire, dans l'ordre de la fiche ; un
+	 *     territoire demandé absent du résultat n'a plus de ligne dans la fiche
+	 */
+	Map<Integer, BookingTerritoryBeanResource> load(BookingSheetKey key,
+			Set<Integer> territoryIds);
+
+	/**
+	 * @return l'ordre des lignes de la fiche, celui de {@link #load}, utilisé pour placer
+	 *     les lignes des nouveaux territoires
+	 */
+	default Comparator<BookingTerritoryBeanResource> order() {
+		return CITY_AND_TERRITORY;
+	}
+
+	/**
+	 * @param order l'ordre des lignes de la fiche
+	 * @return le même calcul, avec cet ordre
+	 */
+	default BookingSheetLoader withOrder(Comparator<BookingTerritoryBeanResource> order) {
+		final BookingSheetLoader loader = this;
+		return new BookingSheetLoader() {
+
+			@Override
+			public Map<Integer, BookingTerritoryBeanResource> load(BookingSheetKey key,
+					Set<Integer> territoryIds) {
+				return loader.load(key, territoryIds);
+			}
+
+			@Override
+			public Comparator<BookingTerritoryBeanResource> order() {
+				return order;
+			}
+		};
+	}
+
+}
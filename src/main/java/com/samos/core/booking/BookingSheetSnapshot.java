@@ -0,0 +1,44 @@
+package com.samos.core.booking;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.samos.core.spring.model.edition.BookingTerritoryBeanResource;
+
+import lombok.Data;
+
+/**
+ * Données précalculées d'une fiche S-13 : une ligne par territoire, dans l'ordre de la
+ * fiche. Les territoires à recalculer sont stockés à part (cf
+ * {@link BookingSheetStore#findStale}).
+ */
+@Data
+public class BookingSheetSnapshot {
+
+	private BookingSheetKey key;
+
+	/** Les lignes de la fiche, par id de territoire. */
+	private Map<Integer, BookingTerritoryBeanResource> rows = new LinkedHashMap<>();
+
+	/** Fiche d'une année close : elle n'est plus recalculée. */
+	private boolean frozen;
+
+	private Instant updatedAt;
+
+	/**
+	 * Les fiches lues dans le stockage pouvant être partagées entre threads, elles ne
+	 * sont pas modifiées mais copiées.
+	 *
+	 * @return une copie de la fiche
+	 */
+	public BookingSheetSnapshot copy() {
+		final BookingSheetSnapshot copy = new BookingSheetSnapshot();
+		copy.setKey(key);
+		copy.setRows(new LinkedHashMap<>(rows));
+		copy.setFrozen(frozen);
+		copy.setUpdatedAt(updatedAt);
+		return copy;
+	}
+
+}
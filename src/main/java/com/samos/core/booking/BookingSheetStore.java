@@ -0,0 +1,61 @@
+package com.samos.core.booking;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Stockage des fiches S-13 précalculées (cf {@link BookingSheets}).
+ * <p>
+ * Les territoires à recalculer sont stockés à part des fiches, un par territoire, avec
+ * une version incrémentée à chaque modification : une modification enregistrée pendant
+ * le calcul d'une fiche n'est jamais effacée par l'enregistrement de ce calcul.
+ */
+public interface BookingSheetStore {
+
+	/**
+	 * @param key l'identifiant de la fiche
+	 * @return la fiche précalculée, si elle existe
+	 */
+	Optional<BookingSheetSnapshot> find(BookingSheetKey key);
+
+	/**
+	 * Enregistre ou remplace une fiche précalculée.
+	 *
+	 * @param snapshot la fiche
+	 */
+	void save(BookingSheetSnapshot snapshot);
+
+	/**
+	 * Supprime une fiche précalculée.
+	 *
+	 * @param key l'identifiant de la fiche
+	 */
+	void delete(BookingSheetKey key);
+
+	/**
+	 * @param key l'identifiant de la fiche
+	 * @return les ids des territoires à recalculer et leur version
+	 */
+	Map<Integer, Long> findStale(BookingSheetKey key);
+
+	/**
+	 * Marque la ligne d'un territoire à recalculer, en incrémentant sa version. La fiche
+	 * n'a pas à exister : une fiche en cours de premier calcul doit aussi voir la
+	 * modification.
+	 *
+	 * @param key l'identifiant de la fiche
+	 * @param territoryId l'id du territoire
+	 */
+	void markStale(BookingSheetKey key, Integer territoryId);
+
+	/**
+	 * Retire les territoires recalculés, seulement s'ils n'ont pas été modifiés depuis
+	 * leur lecture (même version).
+	 *
+	 * @param key l'identifiant de la fiche
+	 * @param territories les ids des territoires recalculés et leur version lue avant le
+	 *     calcul
+	 */
+	void clearStale(BookingSheetKey key, Map<Integer, Long> territories);
+
+}
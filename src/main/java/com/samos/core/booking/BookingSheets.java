@@ -0,0 +1,199 @@
+package com.samos.core.booking;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.samos.core.spring.model.edition.BookingTerritoryBeanResource;
+import com.samos.core.spring.model.edition.MasterBookingBeanResource;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fiches S-13 précalculées par assemblée, ville et année.
+ * <p>
+ * La fiche est calculée entièrement au premier export, puis seules les lignes des
+ * territoires dont les réservations ont changé (cf {@link #bookingsChanged}) sont
+ * recalculées à l'export suivant. Les fiches des années closes sont figées : elles ne
+ * sont plus recalculées, sauf suppression explicite ({@link #evict}).
+ * <p>
+ * Les modifications sont enregistrées avec une version par territoire (cf
+ * {@link BookingSheetStore#markStale}), y compris pour les fiches pas encore calculées :
+ * une modification faite pendant un calcul, sur cette instance ou une autre, reste à
+ * recalculer au prochain export. Les lignes des nouveaux territoires sont placées dans
+ * l'ordre de la fiche ({@link BookingSheetLoader#order()}).
+ *
+ * <pre>
+ * <code class='java'>
+ * // Export : lecture de la fiche puis rendu
+ * final MasterBookingBeanResource sheet = bookingSheets.get(
+ *         BookingSheetKey.of(groupId, cityId, year), bookingService::buildSheetRows);
+ *
+ * // Création, modification ou suppression d'une réservation
+ * bookingSheets.bookingsChanged(groupId, cityId, territoryId, year);
+ * </code>
+ * </pre>
+ */
+@Slf4j
+public class BookingSheets {
+
+	private final BookingSheetStore store;
+	private final Clock clock;
+	private final ConcurrentMap<BookingSheetKey, ReentrantLock> locks = new ConcurrentHashMap<>();
+
+	public BookingSheets(BookingSheetStore store, Clock clock) {
+		this.store = store;
+		this.clock = clock;
+	}
+
+	/**
+	 * Retourne les données de la fiche, en ne recalculant que les lignes modifiées.
+	 *
+	 * @param key l'identifiant de la fiche
+	 * @param loader le calcul des lignes à partir des réservations
+	 * @return les données de la fiche
+	 */
+	public MasterBookingBeanResource get(BookingSheetKey key, BookingSheetLoader loader) {
+		final BookingSheetSnapshot current = store.find(key).orElse(null);
+		if (current != null && (current.isFrozen() || store.findStale(key).isEmpty())) {
+			return toResource(current);
+		}
+
+		// Verrou par fiche (ReentrantLock pour ne pas bloquer les threads virtuels)
+		final ReentrantLock lock = locks.computeIfAbsent(key, k -> new ReentrantLock());
+		lock.lock();
+		try {
+			return toResource(refresh(key, loader));
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Signale la modification des réservations d'un territoire : la ligne du territoire
+	 * sera recalculée au prochain export des fiches qui le contiennent (fiche de la ville
+	 * et fiche de toutes les villes de l'assemblée). Sans effet sur les fiches figées.
+	 *
+	 * @param groupId l'id de l'assemblée
+	 * @param cityId l'id de la ville du territoire
+	 * @param territoryId l'id du territoire
+	 * @param year l'année de la réservation
+	 */
+	public void bookingsChanged(Integer groupId, Integer cityId, Integer territoryId, int year) {
+		for (final BookingSheetKey key : List.of(BookingSheetKey.of(groupId, cityId, year),
+				BookingSheetKey.of(groupId, null, year))) {
+			if (isClosed(year)) {
+				if (store.find(key).isPresent()) {
+					log.warn("Fiche S-13 {} figée : modification du territoire {} ignorée", key,
+							territoryId);
+				}
+			}
+			else {
+				store.markStale(key, territoryId);
+			}
+		}
+	}
+
+	/**
+	 * Supprime une fiche précalculée (figée ou non) : elle sera entièrement recalculée
+	 * au prochain export.
+	 *
+	 * @param key l'identifiant de la fiche
+	 */
+	public void evict(BookingSheetKey key) {
+		store.delete(key);
+	}
+
+	private BookingSheetSnapshot refresh(BookingSheetKey key, BookingSheetLoader loader) {
+		// Versions lues avant le calcul : les modifications faites pendant le calcul
+		// restent à recalculer
+		final Map<Integer, Long> stale = store.findStale(key);
+		final BookingSheetSnapshot current = store.find(key).orElse(null);
+		if (current == null) {
+			final BookingSheetSnapshot built = new BookingSheetSnapshot();
+			built.setKey(key);
+			built.setRows(new LinkedHashMap<>(loader.load(key, null)));
+			return save(built, stale);
+		}
+		if (current.isFrozen() || stale.isEmpty()) {
+			// Recalculée par un autre thread pendant l'attente du verrou
+			return current;
+		}
+
+		final BookingSheetSnapshot snapshot = current.copy();
+		final Map<Integer, BookingTerritoryBeanResource> refreshed = loader
+				.load(key, new LinkedHashSet<>(stale.keySet()));
+		final Map<Integer, BookingTerritoryBeanResource> rows = snapshot.getRows();
+		final Map<Integer, BookingTerritoryBeanResource> added = new LinkedHashMap<>();
+		for (final Integer territoryId : stale.keySet()) {
+			final BookingTerritoryBeanResource row = refreshed.get(territoryId);
+			if (row == null) {
+				rows.remove(territoryId);
+			}
+			else if (rows.containsKey(territoryId)) {
+				// Remplacée à sa place
+				rows.put(territoryId, row);
+			}
+			else {
+				added.put(territoryId, row);
+			}
+		}
+		if (!added.isEmpty()) {
+			snapshot.setRows(insert(rows, added, loader.order()));
+		}
+		log.debug("Fiche S-13 {} : {} lignes recalculées", key, stale.size());
+		return save(snapshot, stale);
+	}
+
+	/**
+	 * Insère les lignes des nouveaux territoires avant la première ligne qui les suit dans
+	 * l'ordre de la fiche, sans déplacer les autres.
+	 */
+	private static Map<Integer, BookingTerritoryBeanResource> insert(
+			Map<Integer, BookingTerritoryBeanResource> rows,
+			Map<Integer, BookingTerritoryBeanResource> added,
+			Comparator<BookingTerritoryBeanResource> order) {
+		final List<Map.Entry<Integer, BookingTerritoryBeanResource>> entries = new ArrayList<>(
+				rows.entrySet());
+		for (final Map.Entry<Integer, BookingTerritoryBeanResource> row : added.entrySet()) {
+			int index = 0;
+			while (index < entries.size()
+					&& order.compare(entries.get(index).getValue(), row.getValue()) <= 0) {
+				index++;
+			}
+			entries.add(index, row);
+		}
+		final Map<Integer, BookingTerritoryBeanResource> sorted = new LinkedHashMap<>();
+		entries.forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+		return sorted;
+	}
+
+	private BookingSheetSnapshot save(BookingSheetSnapshot snapshot, Map<Integer, Long> stale) {
+		snapshot.setFrozen(isClosed(snapshot.getKey().getYear()));
+		snapshot.setUpdatedAt(Instant.now(clock));
+		store.save(snapshot);
+		store.clearStale(snapshot.getKey(), stale);
+		return snapshot;
+	}
+
+	private boolean isClosed(int year) {
+		return year < Year.now(clock).getValue();
+	}
+
+	private static MasterBookingBeanResource toResource(BookingSheetSnapshot snapshot) {
+		final MasterBookingBeanResource resource = new MasterBookingBeanResource();
+		resource.setBookingsBeans(new ArrayList<>(snapshot.getRows().values()));
+		return resource;
+	}
+
+}
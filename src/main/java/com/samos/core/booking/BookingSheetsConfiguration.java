@@ -0,0 +1,48 @@
+package com.samos.core.booking;
+
+import java.time.Clock;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Mise en place des fiches S-13 précalculées (cf {@link BookingSheets}).
+ * <p>
+ * Stockage : {@code samos.booking-sheets.store} = {@code jdbc} (défaut, tables
+ * {@code booking_sheet_snapshot} et {@code booking_sheet_stale}, cf
+ * {@link JdbcBookingSheetStore}) ou {@code memory} (instance unique seulement, cf
+ * {@link InMemoryBookingSheetStore}) : des modifications enregistrées dans la mémoire
+ * d'une instance ne seraient pas vues par les autres, qui exporteraient des fiches
+ * périmées. Un bean {@link BookingSheetStore} de l'application reste prioritaire.
+ */
+@Configuration
+public class BookingSheetsConfiguration {
+
+	@Bean
+	@ConditionalOnMissingBean(BookingSheetStore.class)
+	@ConditionalOnProperty(prefix = "samos.booking-sheets", name = "store", havingValue = "jdbc",
+			matchIfMissing = true)
+	public BookingSheetStore jdbcBookingSheetStore(JdbcTemplate jdbcTemplate,
+			ObjectMapper objectMapper) {
+		return new JdbcBookingSheetStore(jdbcTemplate, objectMapper);
+	}
+
+	@Bean
+	@ConditionalOnMissingBean(BookingSheetStore.class)
+	@ConditionalOnProperty(prefix = "samos.booking-sheets", name = "store", havingValue = "memory")
+	public BookingSheetStore inMemoryBookingSheetStore() {
+		return new InMemoryBookingSheetStore();
+	}
+
+	@Bean
+	public BookingSheets bookingSheets(BookingSheetStore store, ObjectProvider<Clock> clock) {
+		return new BookingSheets(store, clock.getIfAvailable(Clock::systemDefaultZone));
+	}
+
+}
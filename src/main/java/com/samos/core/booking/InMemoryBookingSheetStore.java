@@ -0,0 +1,54 @@
+package com.samos.core.booking;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Stockage en mémoire des fiches S-13 précalculées, perdues au redémarrage et propres à
+ * chaque instance ({@code samos.booking-sheets.store=memory}, instance unique seulement,
+ * cf {@link JdbcBookingSheetStore}).
+ */
+public class InMemoryBookingSheetStore implements BookingSheetStore {
+
+	private final ConcurrentMap<BookingSheetKey, BookingSheetSnapshot> snapshots = new ConcurrentHashMap<>();
+	private final ConcurrentMap<BookingSheetKey, ConcurrentMap<Integer, Long>> stale = new ConcurrentHashMap<>();
+
+	@Override
+	public Optional<BookingSheetSnapshot> find(BookingSheetKey key) {
+		return Optional.ofNullable(snapshots.get(key));
+	}
+
+	@Override
+	public void save(BookingSheetSnapshot snapshot) {
+		snapshots.put(snapshot.getKey(), snapshot);
+	}
+
+	@Override
+	public void delete(BookingSheetKey key) {
+		snapshots.remove(key);
+	}
+
+	@Override
+	public Map<Integer, Long> findStale(BookingSheetKey key) {
+		final Map<Integer, Long> territories = stale.get(key);
+		return territories == null ? Map.of() : Map.copyOf(territories);
+	}
+
+	@Override
+	public void markStale(BookingSheetKey key, Integer territoryId) {
+		stale.computeIfAbsent(key, k -> new ConcurrentHashMap<>()).merge(territoryId, 1L,
+				Long::sum);
+	}
+
+	@Override
+	public void clearStale(BookingSheetKey key, Map<Integer, Long> territories) {
+		final Map<Integer, Long> current = stale.get(key);
+		if (current != null) {
+			// Retrait atomique, seulement pour la version lue
+			territories.forEach(current::remove);
+		}
+	}
+
+}
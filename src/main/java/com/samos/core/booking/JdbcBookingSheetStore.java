@@ -0,0 +1,196 @@
+package com.samos.core.booking;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.samos.core.exception.TechnicalError;
+import com.samos.core.spring.model.edition.BookingTerritoryBeanResource;
+
+/**
+ * Stockage des fiches S-13 précalculées en base de données (stockage par défaut,
+ * {@code samos.booking-sheets.store=jdbc}). Les lignes de la fiche sont stockées en JSON,
+ * les territoires à recalculer un par ligne, dans les tables suivantes :
+ *
+ * <pre>
+ * create table booking_sheet_snapshot (
+ *     group_id integer not null,
+ *     city_id integer not null, -- 0 pour toutes les villes de l'assemblée
+ *     year integer not null,
+ *     frozen boolean not null,
+ *     sheet_rows text not null,
+ *     updated_at timestamp not null,
+ *     primary key (group_id, city_id, year)
+ * );
+ *
+ * create table booking_sheet_stale (
+ *     group_id integer not null,
+ *     city_id integer not null,
+ *     year integer not null,
+ *     territory_id integer not null,
+ *     version bigint not null,
+ *     primary key (group_id, city_id, year, territory_id)
+ * );
+ * </pre>
+ * <p>
+ * Les versions sont modifiées par des {@code update} atomiques : une modification
+ * enregistrée par une instance pendant le calcul de la fiche par une autre n'est pas
+ * effacée.
+ */
+public class JdbcBookingSheetStore implements BookingSheetStore {
+
+	private static final int ALL_CITIES = 0;
+
+	private static final TypeReference<LinkedHashMap<Integer, BookingTerritoryBeanResource>> ROWS_TYPE = new TypeReference<>() {
+	};
+
+	private final JdbcTemplate jdbcTemplate;
+	private final ObjectMapper objectMapper;
+
+	public JdbcBookingSheetStore(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.objectMapper = objectMapper;
+	}
+
+	@Override
+	public Optional<BookingSheetSnapshot> find(BookingSheetKey key) {
+		return jdbcTemplate.query(
+				"select frozen, sheet_rows, updated_at from booking_sheet_snapshot"
+						+ " where group_id = ? and city_id = ? and year = ?",
+				(rs, rowNum) -> map(key, rs), key.getGroupId(), cityId(key), key.getYear())
+				.stream()
+				.findFirst();
+	}
+
+	@Override
+	public void save(BookingSheetSnapshot snapshot) {
+		final BookingSheetKey key = snapshot.getKey();
+		final String rows = write(snapshot.getRows());
+		final Timestamp updatedAt = Timestamp.from(snapshot.getUpdatedAt());
+
+		// Fiche déjà calculée : cas courant d'un recalcul, sans insert en échec qui
+		// annulerait la transaction de l'appelant (PostgreSQL)
+		if (update(key, snapshot.isFrozen(), rows, updatedAt)) {
+			return;
+		}
+		try {
+			jdbcTemplate.update(
+					"insert into booking_sheet_snapshot (group_id, city_id, year, frozen, sheet_rows,"
+							+ " updated_at) values (?, ?, ?, ?, ?, ?)",
+					key.getGroupId(), cityId(key), key.getYear(), snapshot.isFrozen(), rows,
+					updatedAt);
+		}
+		catch (final DuplicateKeyException e) {
+			// Enregistrée entre temps par une autre instance
+			update(key, snapshot.isFrozen(), rows, updatedAt);
+		}
+	}
+
+	@Override
+	public void delete(BookingSheetKey key) {
+		jdbcTemplate.update(
+				"delete from booking_sheet_snapshot where group_id = ? and city_id = ? and year = ?",
+				key.getGroupId(), cityId(key), key.getYear());
+	}
+
+	@Override
+	public Map<Integer, Long> findStale(BookingSheetKey key) {
+		final Map<Integer, Long> territories = new HashMap<>();
+		jdbcTemplate.query(
+				"select territory_id, version from booking_sheet_stale"
+						+ " where group_id = ? and city_id = ? and year = ?",
+				(RowCallbackHandler) rs -> territories.put(rs.getInt("territory_id"),
+						rs.getLong("version")),
+				key.getGroupId(), cityId(key), key.getYear());
+		return territories;
+	}
+
+	@Override
+	public void markStale(BookingSheetKey key, Integer territoryId) {
+		while (true) {
+			if (jdbcTemplate.update(
+					"update booking_sheet_stale set version = version + 1"
+							+ " where group_id = ? and city_id = ? and year = ? and territory_id = ?",
+					key.getGroupId(), cityId(key), key.getYear(), territoryId) == 1) {
+				return;
+			}
+			try {
+				jdbcTemplate.update(
+						"insert into booking_sheet_stale (group_id, city_id, year, territory_id, version)"
+								+ " values (?, ?, ?, ?, 1)",
+						key.getGroupId(), cityId(key), key.getYear(), territoryId);
+				return;
+			}
+			catch (final DuplicateKeyException e) {
+				// Seulement si inséré entre temps par une autre instance : on incrémente sa
+				// version
+			}
+		}
+	}
+
+	@Override
+	public void clearStale(BookingSheetKey key, Map<Integer, Long> territories) {
+		if (territories.isEmpty()) {
+			return;
+		}
+		final List<Object[]> args = territories.entrySet()
+				.stream()
+				.map(territory -> new Object[] { key.getGroupId(), cityId(key), key.getYear(),
+						territory.getKey(), territory.getValue() })
+				.toList();
+		jdbcTemplate.batchUpdate("delete from booking_sheet_stale where group_id = ?"
+				+ " and city_id = ? and year = ? and territory_id = ? and version = ?", args);
+	}
+
+	private boolean update(BookingSheetKey key, boolean frozen, String rows,
+			Timestamp updatedAt) {
+		return jdbcTemplate.update(
+				"update booking_sheet_snapshot set frozen = ?, sheet_rows = ?, updated_at = ?"
+						+ " where group_id = ? and city_id = ? and year = ?",
+				frozen, rows, updatedAt, key.getGroupId(), cityId(key), key.getYear()) == 1;
+	}
+
+	private BookingSheetSnapshot map(BookingSheetKey key, ResultSet rs) throws SQLException {
+		final BookingSheetSnapshot snapshot = new BookingSheetSnapshot();
+		snapshot.setKey(key);
+		snapshot.setFrozen(rs.getBoolean("frozen"));
+		snapshot.setRows(read(rs.getString("sheet_rows"), ROWS_TYPE));
+		snapshot.setUpdatedAt(rs.getTimestamp("updated_at").toInstant());
+		return snapshot;
+	}
+
+	private static int cityId(BookingSheetKey key) {
+		return key.getCityId() == null ? ALL_CITIES : key.getCityId();
+	}
+
+	private String write(Object value) {
+		try {
+			return objectMapper.writeValueAsString(value);
+		}
+		catch (final JsonProcessingException e) {
+			throw new TechnicalError(e, "Impossible d'enregistrer la fiche S-13");
+		}
+	}
+
+	private <T> T read(String json, TypeReference<T> type) {
+		try {
+			return objectMapper.readValue(json, type);
+		}
+		catch (final JsonProcessingException e) {
+			throw new TechnicalError(e, "Impossible de lire la fiche S-13");
+		}
+	}
+
+}
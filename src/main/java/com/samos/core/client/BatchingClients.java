@@ -0,0 +1,184 @@
+package com.samos.core.client;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import com.samos.core.concurrent.MicroBatcher;
+import com.samos.core.feign.handler.PhotosApi;
+import com.samos.core.feign.handler.TerritoriesApi;
+import com.samos.core.feign.model.BatchIds;
+import com.samos.core.feign.model.City;
+import com.samos.core.feign.model.Group;
+import com.samos.core.feign.model.Photo;
+import com.samos.core.feign.model.PhotoBatch;
+import com.samos.core.feign.model.Territory;
+import com.samos.core.feign.model.TerritoryBatch;
+import com.samos.core.feign.model.TerritoryPhotosBatch;
+import com.samos.core.timing.Phase;
+import com.samos.core.timing.RequestTimings;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Regroupement automatique des lectures unitaires des clients Feign générés
+ * (getTerritory, getTerritoryPhotos, getPhoto) en lectures groupées
+ * (getTerritoriesByIds, getTerritoriesPhotos, getPhotosByIds), cf {@link MicroBatcher}.
+ * <p>
+ * Les références partagées des réponses groupées (territoires, assemblées, villes) sont
+ * replacées dans les éléments retournés : les objets retournés sont donc partagés entre
+ * les appelants d'un même lot et ne doivent pas être modifiés. Les autres méthodes sont
+ * appelées directement.
+ * <p>
+ * Seuls les appels d'un même appelant sont regroupés, avec le contexte de sa requête
+ * (entêtes propagés, traces). Un id absent d'une réponse groupée est relu par l'appel
+ * unitaire, pour que l'erreur reste celle d'un client non regroupé (FeignException
+ * 404...). L'attente d'un appel groupé est mesurée dans la phase
+ * {@link Phase#DOWNSTREAM} de la requête de chaque appelant (cf {@link TimingClients}).
+ *
+ * <pre>
+ * <code class='java'>
+ * final TerritoriesApi territoriesApi = BatchingClients.enable(
+ *         apiClient.buildClient(TerritoriesApi.class), meterRegistry);
+ * </code>
+ * </pre>
+ */
+@UtilityClass
+public class BatchingClients {
+
+	/**
+	 * @param territoriesApi le client généré
+	 * @param meterRegistry le registre des métriques
+	 * @return le client dont getTerritory et getTerritoryPhotos sont regroupés
+	 */
+	public static TerritoriesApi enable(TerritoriesApi territoriesApi, MeterRegistry meterRegistry) {
+		final MicroBatcher<Integer, Territory> territories = new MicroBatcher<>("territories",
+				ids -> territories(territoriesApi.getTerritoriesByIds(batchIds(ids))),
+				meterRegistry);
+		final MicroBatcher<Integer, List<Photo>> territoriesPhotos = new MicroBatcher<>(
+				"territoriesPhotos",
+				ids -> territoriesPhotos(territoriesApi.getTerritoriesPhotos(batchIds(ids))),
+				meterRegistry);
+
+		return proxy(TerritoriesApi.class, territoriesApi, Map.of( //
+				"getTerritory", territories, //
+				"getTerritoryPhotos", territoriesPhotos));
+	}
+
+	/**
+	 * @param photosApi le client généré
+	 * @param meterRegistry le registre des métriques
+	 * @return le client dont getPhoto est regroupé
+	 */
+	public static PhotosApi enable(PhotosApi photosApi, MeterRegistry meterRegistry) {
+		final MicroBatcher<Integer, Photo> photos = new MicroBatcher<>("photos",
+				ids -> photos(photosApi.getPhotosByIds(batchIds(ids))), meterRegistry);
+
+		return proxy(PhotosApi.class, photosApi, Map.of("getPhoto", photos));
+	}
+
+	private static BatchIds batchIds(Set<Integer> ids) {
+		return new BatchIds().ids(List.copyOf(ids));
+	}
+
+	private static Map<Integer, Territory> territories(TerritoryBatch batch) {
+		final Map<Integer, Territory> territories = new HashMap<>();
+		batch.getTerritories().forEach((id, territory) -> territories.put(Integer.valueOf(id),
+				resolve(territory, batch.getGroups(), batch.getCities())));
+		return territories;
+	}
+
+	private static Map<Integer, Photo> photos(PhotoBatch batch) {
+		final Map<Integer, Photo> photos = new HashMap<>();
+		batch.getPhotos().forEach((id, photo) -> photos.put(Integer.valueOf(id),
+				resolve(photo, batch.getTerritories(), batch.getGroups(), batch.getCities())));
+		return photos;
+	}
+
+	private static Map<Integer, List<Photo>> territoriesPhotos(TerritoryPhotosBatch batch) {
+		final Map<Integer, List<Photo>> photos = new HashMap<>();
+		batch.getPhotos().forEach((id, territoryPhotos) -> {
+			territoryPhotos.forEach(photo -> resolve(photo, batch.getTerritories(),
+					batch.getGroups(), batch.getCities()));
+			photos.put(Integer.valueOf(id), territoryPhotos);
+		});
+		return photos;
+	}
+
+	private static Photo resolve(Photo photo, Map<String, Territory> territories,
+			Map<String, Group> groups, Map<String, City> cities) {
+		final Territory territory = photo.getTerritory();
+		if (territory != null && territory.getId() != null) {
+			final Territory shared = territories.get(String.valueOf(territory.getId()));
+			if (shared != null) {
+				photo.setTerritory(shared);
+			}
+		}
+		if (photo.getTerritory() != null) {
+			resolve(photo.getTerritory(), groups, cities);
+		}
+		return photo;
+	}
+
+	/**
+	 * Remplace les références (id seul) à l'assemblée et à la ville du territoire (et de
+	 * son territoire parent) par les objets complets de la réponse.
+	 */
+	private static Territory resolve(Territory territory, Map<String, Group> groups,
+			Map<String, City> cities) {
+		if (territory.getGroup() != null && territory.getGroup().getId() != null) {
+			final Group group = groups.get(String.valueOf(territory.getGroup().getId()));
+			if (group != null) {
+				territory.setGroup(group);
+			}
+		}
+		if (territory.getCity() != null && territory.getCity().getId() != null) {
+			final City city = cities.get(String.valueOf(territory.getCity().getId()));
+			if (city != null) {
+				territory.setCity(city);
+			}
+		}
+		if (territory.getParent() != null) {
+			resolve(territory.getParent(), groups, cities);
+		}
+		return territory;
+	}
+
+	private static <A> A proxy(Class<A> api, A delegate,
+			Map<String, MicroBatcher<Integer, ?>> batched) {
+		final InvocationHandler handler = (proxy, method, args) -> {
+			final MicroBatcher<Integer, ?> batcher = batched.get(method.getName());
+			if (batcher != null && args != null && args.length == 1
+					&& args[0] instanceof Integer id) {
+				// L'appel groupé est fait sur un autre thread, hors des mesures de la requête
+				final Optional<?> value = RequestTimings.time(Phase.DOWNSTREAM,
+						() -> batcher.find(id));
+				if (value.isPresent()) {
+					return value.get();
+				}
+			}
+			return invoke(delegate, method, args);
+		};
+		return api.cast(Proxy.newProxyInstance(api.getClassLoader(), new Class<?>[] { api },
+				handler));
+	}
+
+	private static Object invoke(Object delegate, Method method, Object[] args)
+			throws Throwable {
+		try {
+			return method.invoke(delegate, args);
+		}
+		catch (InvocationTargetException e) {
+			// Erreur d'origine du client (FeignException...)
+			throw e.getCause();
+		}
+	}
+
+}
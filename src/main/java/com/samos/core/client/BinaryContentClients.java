@@ -0,0 +1,141 @@
+package com.samos.core.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.samos.core.feign.ApiClient;
+import com.samos.core.feign.ApiResponseDecoder;
+import com.samos.core.feign.model.ApiResponse;
+
+import feign.Response;
+import feign.Types;
+import feign.Util;
+import feign.codec.Decoder;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Activation du format binaire Smile sur les clients Feign générés.
+ * <p>
+ * Les appels dont l'entête Accept généré ne liste que du JSON et Smile (les opérations
+ * qui proposent Smile génèrent {@code application/json,application/x-jackson-smile})
+ * sont émis avec {@code Accept: application/x-jackson-smile, application/json;q=0.9} ;
+ * les autres (fichiers, exports : {@code application/octet-stream}...) gardent leur
+ * entête Accept.
+ * La réponse est décodée selon son Content-Type, les endpoints qui ne proposent pas Smile
+ * et les erreurs ({@code ApiError}) restant décodés en JSON. Les bodies des requêtes
+ * restent en JSON.
+ *
+ * <pre>
+ * <code class='java'>
+ * final TerritoriesApi territoriesApi = BinaryContentClients.enable(new ApiClient())
+ *         .buildClient(TerritoriesApi.class);
+ * </code>
+ * </pre>
+ */
+@UtilityClass
+public class BinaryContentClients {
+
+	public static final String APPLICATION_SMILE = "application/x-jackson-smile";
+
+	private static final String JSON = "application/json";
+
+	private static final String ACCEPT = APPLICATION_SMILE + ", " + JSON + ";q=0.9";
+
+	/**
+	 * Active Smile sur un {@link ApiClient} généré. Doit être appelé avant
+	 * {@link ApiClient#buildClient(Class)}.
+	 *
+	 * @param apiClient le client généré
+	 * @return le client généré, pour chaîner les appels
+	 */
+	public static ApiClient enable(ApiClient apiClient) {
+		// Le mapper Smile reprend la configuration du mapper JSON du client généré
+		final ObjectMapper smileMapper = apiClient.getObjectMapper()
+				.copyWith(new SmileFactory());
+		apiClient.getFeignBuilder() //
+				.decoder(new NegotiatingDecoder(
+						new ApiResponseDecoder(apiClient.getObjectMapper()), smileMapper)) //
+				.requestInterceptor(template -> {
+					if (isNegotiable(template.headers().get("Accept"))) {
+						template.removeHeader("Accept");
+						template.header("Accept", ACCEPT);
+					}
+				});
+		return apiClient;
+	}
+
+	/**
+	 * @param accept les valeurs de l'entête Accept généré
+	 * @return {@code true} si tous les types acceptés sont du JSON ou Smile
+	 */
+	static boolean isNegotiable(Collection<String> accept) {
+		if (accept == null || accept.isEmpty()) {
+			return false;
+		}
+		return accept.stream() //
+				.flatMap(value -> Arrays.stream(value.split(","))) //
+				.map(value -> value.split(";", 2)[0].trim().toLowerCase(Locale.ROOT)) //
+				.allMatch(type -> JSON.equals(type) || type.endsWith("+json")
+						|| APPLICATION_SMILE.equals(type));
+	}
+
+	/**
+	 * Décodeur choisissant le format en fonction du Content-Type de la réponse.
+	 */
+	public static class NegotiatingDecoder implements Decoder {
+
+		private final Decoder jsonDecoder;
+		private final ObjectMapper smileMapper;
+
+		public NegotiatingDecoder(Decoder jsonDecoder, ObjectMapper smileMapper) {
+			this.jsonDecoder = jsonDecoder;
+			this.smileMapper = smileMapper;
+		}
+
+		@Override
+		public Object decode(Response response, Type type) throws IOException {
+			if (!isSmile(response)) {
+				return jsonDecoder.decode(response, type);
+			}
+
+			// Même traitement que l'ApiResponseDecoder généré pour les méthodes
+			// "WithHttpInfo"
+			if (type instanceof ParameterizedType parameterizedType
+					&& Types.getRawType(type).isAssignableFrom(ApiResponse.class)) {
+				final Object body = read(response,
+						parameterizedType.getActualTypeArguments()[0]);
+				final Map<String, Collection<String>> headers = Collections
+						.unmodifiableMap(response.headers());
+				return new ApiResponse<>(response.status(), headers, body);
+			}
+			return read(response, type);
+		}
+
+		private Object read(Response response, Type type) throws IOException {
+			if (response.body() == null) {
+				return Util.emptyValueOf(type);
+			}
+			// Smile est un format binaire : on lit le flux d'octets, jamais un Reader
+			try (InputStream body = response.body().asInputStream()) {
+				return smileMapper.readValue(body, smileMapper.constructType(type));
+			}
+		}
+
+		private static boolean isSmile(Response response) {
+			final Collection<String> contentTypes = response.headers()
+					.getOrDefault("Content-Type", response.headers().get("content-type"));
+			return contentTypes != null && contentTypes.stream()
+					.anyMatch(value -> value.startsWith(APPLICATION_SMILE));
+		}
+	}
+
+}
@@ -0,0 +1,57 @@
+package com.samos.core.client;
+
+import java.io.File;
+
+import com.samos.core.feign.ApiClient;
+
+import feign.Client;
+import feign.okhttp.OkHttpClient;
+import okhttp3.Cache;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Cache conditionnel côté client pour les clients Feign générés.
+ * <p>
+ * Les réponses portant un ETag sont conservées par OkHttp ; les appels suivants sont
+ * émis avec If-None-Match / If-Modified-Since et une réponse 304 du serveur est servie
+ * à partir du cache, sans retransférer ni re-parser le body côté serveur.
+ *
+ * <pre>
+ * <code class='java'>
+ * final ApiClient apiClient = ConditionalCacheClients.enable(new ApiClient(),
+ *         new File("/tmp/territories-cache"), 50L * 1024 * 1024);
+ * final TerritoriesApi territoriesApi = apiClient.buildClient(TerritoriesApi.class);
+ * </code>
+ * </pre>
+ */
+@UtilityClass
+public class ConditionalCacheClients {
+
+	/**
+	 * Construit un client HTTP Feign disposant d'un cache conditionnel.
+	 *
+	 * @param directory le répertoire du cache
+	 * @param maxSizeBytes la taille maximale du cache, en octets
+	 * @return le client
+	 */
+	public static Client okHttpClient(File directory, long maxSizeBytes) {
+		return new OkHttpClient(new okhttp3.OkHttpClient.Builder() //
+				.cache(new Cache(directory, maxSizeBytes)) //
+				.build());
+	}
+
+	/**
+	 * Active le cache conditionnel sur un {@link ApiClient} généré. Doit être appelé avant
+	 * {@link ApiClient#buildClient(Class)}.
+	 *
+	 * @param apiClient le client généré
+	 * @param directory le répertoire du cache
+	 * @param maxSizeBytes la taille maximale du cache, en octets
+	 * @return le client généré, pour chaîner les appels
+	 */
+	public static ApiClient enable(ApiClient apiClient, File directory, long maxSizeBytes) {
+		apiClient.getFeignBuilder().client(okHttpClient(directory, maxSizeBytes));
+		return apiClient;
+	}
+
+}
@@ -0,0 +1,34 @@
+package com.samos.core.client;
+
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.samos.core.feign.ApiClient;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Optimisation de la sérialisation Jackson des clients Feign générés (cf
+ * {@link com.samos.core.json.JacksonConfiguration} côté serveur).
+ *
+ * <pre>
+ * <code class='java'>
+ * final TerritoriesApi territoriesApi = JacksonClients.enable(new ApiClient())
+ *         .buildClient(TerritoriesApi.class);
+ * </code>
+ * </pre>
+ */
+@UtilityClass
+public class JacksonClients {
+
+	/**
+	 * Enregistre le module Blackbird sur le mapper du client généré, partagé par son
+	 * encodeur et son décodeur.
+	 *
+	 * @param apiClient le client généré
+	 * @return le client généré, pour chaîner les appels
+	 */
+	public static ApiClient enable(ApiClient apiClient) {
+		apiClient.getObjectMapper().registerModule(new BlackbirdModule());
+		return apiClient;
+	}
+
+}
@@ -0,0 +1,61 @@
+package com.samos.core.client;
+
+import com.samos.core.feign.ApiClient;
+import com.samos.core.timing.Phase;
+import com.samos.core.timing.RequestTimings;
+
+import feign.Capability;
+import feign.Client;
+import feign.codec.Decoder;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Mesure des appels des clients Feign générés dans la phase {@link Phase#DOWNSTREAM}
+ * de la requête en cours (entête Server-Timing et métriques, cf
+ * {@link com.samos.core.timing.ServerTimingFilter}).
+ *
+ * <pre>
+ * <code class='java'>
+ * final TerritoriesApi territoriesApi = TimingClients.enable(new ApiClient())
+ *         .buildClient(TerritoriesApi.class);
+ * </code>
+ * </pre>
+ */
+@UtilityClass
+public class TimingClients {
+
+	/**
+	 * Ajoute la mesure des échanges HTTP et du décodage des réponses au client généré. À
+	 * appeler avant la construction des clients.
+	 *
+	 * @param apiClient le client généré
+	 * @return le client généré, pour chaîner les appels
+	 */
+	public static ApiClient enable(ApiClient apiClient) {
+		apiClient.getFeignBuilder().addCapability(new TimingCapability());
+		return apiClient;
+	}
+
+	private static class TimingCapability implements Capability {
+
+		@Override
+		public Client enrich(Client client) {
+			return (request, options) -> {
+				try (RequestTimings.Split split = RequestTimings.start(Phase.DOWNSTREAM)) {
+					return client.execute(request, options);
+				}
+			};
+		}
+
+		@Override
+		public Decoder enrich(Decoder decoder) {
+			return (response, type) -> {
+				try (RequestTimings.Split split = RequestTimings.start(Phase.DOWNSTREAM)) {
+					return decoder.decode(response, type);
+				}
+			};
+		}
+
+	}
+
+}
@@ -0,0 +1,271 @@
+package com.samos.core.concurrent;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import com.samos.core.exception.RetriableError;
+import com.samos.core.exception.TechnicalError;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+
+/**
+ * Cloisonnement ("bulkhead") d'une classe d'endpoints (ex: les exports).
+ * <p>
+ * Un bulkhead combine :
+ * <ul>
+ * <li>une limite de requêtes concurrentes, ajustée en fonction de la latence observée
+ * (augmentation additive tant que la latence reste sous la cible, diminution
+ * multiplicative sinon) ;</li>
+ * <li>un pool de threads borné, avec une file bornée, dédié aux traitements de la
+ * classe d'endpoints. En mode threads virtuels (cf {@link #virtual}), chaque
+ * traitement a son propre thread virtuel et un sémaphore borne le nombre de traitements
+ * exécutés simultanément : les threads virtuels ne sont jamais mis en pool.</li>
+ * </ul>
+ * Au-delà de ces limites, la requête est rejetée immédiatement avec une
+ * {@link RetriableError} (503 + Retry-After) plutôt que d'attendre et de dégrader la
+ * latence des autres endpoints.
+ */
+public class Bulkhead {
+
+	/** Code des erreurs de rejet. */
+	public static final TechnicalError.ErrorCode BULKHEAD_FULL = () -> "BULKHEAD_FULL";
+
+	private static final double DECREASE_FACTOR = 0.9;
+
+	@Getter
+	private final String name;
+	private final BulkheadProperties.Settings settings;
+	// Pool de threads de plateforme, ou threads virtuels bornés par le sémaphore
+	private final ThreadPoolExecutor executor;
+	private final AsyncTaskExecutor virtualExecutor;
+	private final Semaphore running;
+	private final AtomicInteger pending = new AtomicInteger();
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final Counter rejections;
+
+	// Limite courante, modifiée sous verrou (mise à jour peu fréquente comparée à la
+	// lecture)
+	private volatile double limit;
+
+	/**
+	 * Constructeur.
+	 *
+	 * @param name le nom de la classe d'endpoints
+	 * @param settings le paramétrage du bulkhead
+	 * @param meterRegistry le registre des métriques
+	 */
+	public Bulkhead(String name, BulkheadProperties.Settings settings,
+			MeterRegistry meterRegistry) {
+		this(name, settings, new CustomizableThreadFactory("bulkhead-" + name + "-"),
+				meterRegistry);
+	}
+
+	/**
+	 * Identique à {@link #Bulkhead(String, BulkheadProperties.Settings, MeterRegistry)}
+	 * mais permet de préciser la fabrique des threads du pool dédié (ex: threads
+	 * virtuels).
+	 *
+	 * @param threadFactory la fabrique des threads du pool dédié
+	 */
+	public Bulkhead(String name, BulkheadProperties.Settings settings,
+			ThreadFactory threadFactory, MeterRegistry meterRegistry) {
+		this(name, settings, platformExecutor(settings, threadFactory), null, meterRegistry);
+	}
+
+	private Bulkhead(String name, BulkheadProperties.Settings settings,
+			ThreadPoolExecutor executor, AsyncTaskExecutor virtualExecutor,
+			MeterRegistry meterRegistry) {
+		this.name = name;
+		this.settings = settings;
+		this.limit = settings.getMaxConcurrent();
+		this.executor = executor;
+		this.virtualExecutor = virtualExecutor;
+		this.running = new Semaphore(settings.getThreads());
+
+		this.rejections = Counter.builder("bulkhead.rejections") //
+				.tag("name", name) //
+				.register(meterRegistry);
+		Gauge.builder("bulkhead.queue.depth", this, Bulkhead::getQueueDepth) //
+				.tag("name", name) //
+				.register(meterRegistry);
+		Gauge.builder("bulkhead.inflight", inFlight, AtomicInteger::get) //
+				.tag("name", name) //
+				.register(meterRegistry);
+		Gauge.builder("bulkhead.limit", this, Bulkhead::getLimit) //
+				.tag("name", name) //
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Bulkhead dont les traitements sont exécutés sur des threads virtuels (JDK 21+).
+	 *
+	 * @param name le nom de la classe d'endpoints
+	 * @param settings le paramétrage du bulkhead : {@code threads} traitements
+	 *     simultanés au plus, et {@code queueCapacity} traitements en attente
+	 * @param meterRegistry le registre des métriques
+	 * @return le bulkhead
+	 */
+	public static Bulkhead virtual(String name, BulkheadProperties.Settings settings,
+			MeterRegistry meterRegistry) {
+		return new Bulkhead(name, settings, null,
+				new VirtualThreadTaskExecutor("bulkhead-" + name + "-"), meterRegistry);
+	}
+
+	/**
+	 * Réserve une place pour une requête.
+	 *
+	 * @throws RetriableError si la limite de requêtes concurrentes est atteinte
+	 */
+	public void acquire() {
+		while (true) {
+			final int current = inFlight.get();
+			if (current >= (int) limit) {
+				throw reject("Limite de {} requêtes concurrentes atteinte pour {}.",
+						(int) limit, name);
+			}
+			if (inFlight.compareAndSet(current, current + 1)) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Libère la place d'une requête et ajuste la limite en fonction de sa latence.
+	 *
+	 * @param latencyNanos la latence de la requête, en nanosecondes
+	 */
+	public void release(long latencyNanos) {
+		release(null, latencyNanos);
+	}
+
+	/**
+	 * Libère la place d'une requête et ajuste la limite en fonction de sa latence,
+	 * comparée à la latence cible de son opération (cf
+	 * {@link BulkheadProperties.Settings#getOperationTargetLatencies()}).
+	 *
+	 * @param operation l'operationId de la requête (facultatif)
+	 * @param latencyNanos la latence de la requête, en nanosecondes
+	 */
+	public void release(String operation, long latencyNanos) {
+		inFlight.decrementAndGet();
+
+		final Duration target = operation != null
+				? settings.getOperationTargetLatencies().getOrDefault(operation,
+						settings.getTargetLatency())
+				: settings.getTargetLatency();
+		synchronized (this) {
+			if (latencyNanos > target.toNanos()) {
+				limit = Math.max(settings.getMinConcurrent(), limit * DECREASE_FACTOR);
+			}
+			else {
+				limit = Math.min(settings.getMaxConcurrent(), limit + 1 / limit);
+			}
+		}
+	}
+
+	/**
+	 * Soumet un traitement au pool de threads dédié.
+	 *
+	 * @param task le traitement
+	 * @return le résultat à venir du traitement
+	 * @throws RetriableError si la file du pool est pleine
+	 */
+	public <V> Future<V> submit(Callable<V> task) {
+		if (virtualExecutor != null) {
+			return submitVirtual(task);
+		}
+		try {
+			return executor.submit(task);
+		}
+		catch (RejectedExecutionException e) {
+			throw reject("File de {} traitements pleine pour {}.",
+					settings.getQueueCapacity(), name);
+		}
+	}
+
+	/**
+	 * @return le nombre de traitements en attente d'exécution
+	 */
+	public int getQueueDepth() {
+		return virtualExecutor != null ? running.getQueueLength() : executor.getQueue().size();
+	}
+
+	/**
+	 * @return la limite courante de requêtes concurrentes
+	 */
+	public double getLimit() {
+		return limit;
+	}
+
+	/**
+	 * @return le nombre de requêtes en cours
+	 */
+	public int getInFlight() {
+		return inFlight.get();
+	}
+
+	/**
+	 * Arrête le pool de threads dédié.
+	 */
+	public void shutdown() {
+		if (executor != null) {
+			executor.shutdown();
+		}
+	}
+
+	private <V> Future<V> submitVirtual(Callable<V> task) {
+		// Même capacité que le pool : traitements en cours et file d'attente
+		if (pending.incrementAndGet() > settings.getThreads() + settings.getQueueCapacity()) {
+			pending.decrementAndGet();
+			throw reject("File de {} traitements pleine pour {}.",
+					settings.getQueueCapacity(), name);
+		}
+		return virtualExecutor.submit(() -> {
+			try {
+				// L'attente ne bloque que le thread virtuel, pas son thread porteur
+				running.acquire();
+				try {
+					return task.call();
+				}
+				finally {
+					running.release();
+				}
+			}
+			finally {
+				pending.decrementAndGet();
+			}
+		});
+	}
+
+	private static ThreadPoolExecutor platformExecutor(BulkheadProperties.Settings settings,
+			ThreadFactory threadFactory) {
+		final ThreadPoolExecutor executor = new ThreadPoolExecutor(settings.getThreads(),
+				settings.getThreads(), 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(settings.getQueueCapacity()), threadFactory,
+				new ThreadPoolExecutor.AbortPolicy());
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	private RetriableError reject(String message, Object... parameters) {
+		rejections.increment();
+		final Duration retryAfter = settings.getRetryAfter();
+		return new RetriableError(BULKHEAD_FULL, retryAfter, message, parameters);
+	}
+
+}
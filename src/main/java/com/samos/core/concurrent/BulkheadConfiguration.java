@@ -0,0 +1,63 @@
+package com.samos.core.concurrent;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+
+/**
+ * Mise en place des bulkheads par classe d'endpoints (cf {@link BulkheadProperties}).
+ * <p>
+ * Les traitements lourds d'une classe peuvent être exécutés sur son pool dédié via
+ * {@link #getBulkhead(String)}. Les traitements sont exécutés sur des threads virtuels,
+ * bornés par un sémaphore, si {@code spring.threads.virtual.enabled=true}.
+ */
+@Configuration
+@EnableConfigurationProperties(BulkheadProperties.class)
+@ConditionalOnProperty(prefix = "samos.bulkheads", name = "enabled", matchIfMissing = true)
+public class BulkheadConfiguration implements WebMvcConfigurer, DisposableBean {
+
+	private final BulkheadProperties properties;
+	private final Map<String, Bulkhead> bulkheads = new LinkedHashMap<>();
+
+	public BulkheadConfiguration(BulkheadProperties properties,
+			ObjectProvider<MeterRegistry> meterRegistry, Environment environment) {
+		this.properties = properties;
+		final MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+		final boolean virtual = Threading.VIRTUAL.isActive(environment);
+		properties.getClasses().forEach((name, settings) -> bulkheads.put(name, virtual
+				? Bulkhead.virtual(name, settings, registry)
+				: new Bulkhead(name, settings, registry)));
+	}
+
+	/**
+	 * @param name le nom de la classe d'endpoints (ex: "export")
+	 * @return le bulkhead de la classe, ou {@code null} si la classe n'existe pas
+	 */
+	public Bulkhead getBulkhead(String name) {
+		return bulkheads.get(name);
+	}
+
+	@Override
+	public void addInterceptors(@NonNull InterceptorRegistry registry) {
+		registry.addInterceptor(new BulkheadInterceptor(bulkheads, properties));
+	}
+
+	@Override
+	public void destroy() {
+		bulkheads.values().forEach(Bulkhead::shutdown);
+	}
+
+}
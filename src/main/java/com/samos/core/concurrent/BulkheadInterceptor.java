@@ -0,0 +1,85 @@
+package com.samos.core.concurrent;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.lang.NonNull;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Contrôle d'admission des requêtes : chaque requête dont l'opération appartient à une
+ * classe d'endpoints réserve une place dans le {@link Bulkhead} de cette classe, et la
+ * libère en fin de traitement.
+ * <p>
+ * L'opération est identifiée par le nom de la méthode du handler, qui correspond à
+ * l'operationId du contrat d'interface.
+ * <p>
+ * Pour un traitement asynchrone (ex: {@code StreamingResponseBody}), la place est
+ * réservée au premier dispatch et conservée jusqu'à la fin du dispatch de reprise : le
+ * second {@code preHandle} ne réserve pas de nouvelle place.
+ */
+public class BulkheadInterceptor implements AsyncHandlerInterceptor {
+
+	private static final String ATTRIBUTE = BulkheadInterceptor.class.getName() + ".start";
+
+	private final Map<String, Bulkhead> bulkheadsByOperation = new HashMap<>();
+
+	/**
+	 * Constructeur.
+	 *
+	 * @param bulkheads les bulkheads, par classe d'endpoints
+	 * @param properties le paramétrage des bulkheads
+	 */
+	public BulkheadInterceptor(Map<String, Bulkhead> bulkheads,
+			BulkheadProperties properties) {
+		properties.getClasses().forEach((name, settings) -> settings.getOperations()
+				.forEach(operation -> bulkheadsByOperation.put(operation, bulkheads.get(name))));
+	}
+
+	@Override
+	public boolean preHandle(@NonNull HttpServletRequest request,
+			@NonNull HttpServletResponse response, @NonNull Object handler) {
+		final Bulkhead bulkhead = bulkhead(handler);
+		// Dispatch de reprise d'un traitement asynchrone : la place est déjà réservée
+		if (bulkhead != null && request.getAttribute(ATTRIBUTE) == null) {
+			// Lève une RetriableError (503) si la limite est atteinte
+			bulkhead.acquire();
+			request.setAttribute(ATTRIBUTE, System.nanoTime());
+		}
+		return true;
+	}
+
+	@Override
+	public void afterCompletion(@NonNull HttpServletRequest request,
+			@NonNull HttpServletResponse response, @NonNull Object handler, Exception ex) {
+		final Object start = request.getAttribute(ATTRIBUTE);
+		final Bulkhead bulkhead = bulkhead(handler);
+		if (bulkhead != null && start != null) {
+			request.removeAttribute(ATTRIBUTE);
+			bulkhead.release(operation(handler), System.nanoTime() - (long) start);
+		}
+	}
+
+	@Override
+	public void afterConcurrentHandlingStarted(@NonNull HttpServletRequest request,
+			@NonNull HttpServletResponse response, @NonNull Object handler) {
+		// Traitement asynchrone démarré : afterCompletion n'est pas appelé pour ce
+		// dispatch, la place est libérée à la fin du dispatch de reprise
+	}
+
+	private Bulkhead bulkhead(Object handler) {
+		final String operation = operation(handler);
+		return operation != null ? bulkheadsByOperation.get(operation) : null;
+	}
+
+	private static String operation(Object handler) {
+		return handler instanceof HandlerMethod handlerMethod
+				? handlerMethod.getMethod().getName()
+				: null;
+	}
+
+}
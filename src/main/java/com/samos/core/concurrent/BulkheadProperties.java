@@ -0,0 +1,88 @@
+package com.samos.core.concurrent;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Paramétrage des bulkheads, par classe d'endpoints.
+ *
+ * <pre>
+ * samos.bulkheads.enabled=true
+ * samos.bulkheads.classes.export.operations=territoriesExport,exportTerritoriesToBuild
+ * samos.bulkheads.classes.export.max-concurrent=4
+ * samos.bulkheads.classes.export.threads=4
+ * samos.bulkheads.classes.export.target-latency=10s
+ * samos.bulkheads.classes.export.operation-target-latencies.territoriesExport=2m
+ * </pre>
+ *
+ * Les opérations correspondent aux operationId des contrats d'interface. Les opérations
+ * qui n'appartiennent à aucune classe ne sont pas limitées.
+ */
+@Data
+@ConfigurationProperties(prefix = "samos.bulkheads")
+public class BulkheadProperties {
+
+	private boolean enabled = true;
+
+	private Map<String, Settings> classes = new LinkedHashMap<>(
+			Map.of("export", Settings.exports()));
+
+	@Data
+	public static class Settings {
+
+		/** Les operationId des endpoints de la classe. */
+		private List<String> operations = List.of();
+
+		/** Borne basse de la limite adaptative de requêtes concurrentes. */
+		private int minConcurrent = 1;
+
+		/** Borne haute (et valeur initiale) de la limite de requêtes concurrentes. */
+		private int maxConcurrent = 50;
+
+		/** Latence au-delà de laquelle la limite de requêtes concurrentes diminue. */
+		private Duration targetLatency = Duration.ofSeconds(1);
+
+		/**
+		 * Latences cibles propres à certaines opérations de la classe, dont la durée
+		 * normale dépasse {@link #targetLatency} (ex: exports de nombreux territoires).
+		 */
+		private Map<String, Duration> operationTargetLatencies = new LinkedHashMap<>();
+
+		/** Nombre de threads du pool dédié. */
+		private int threads = 4;
+
+		/** Taille de la file du pool dédié. */
+		private int queueCapacity = 16;
+
+		/** Délai retourné à l'appelant en cas de rejet. */
+		private Duration retryAfter = Duration.ofSeconds(5);
+
+		static Settings exports() {
+			final Settings settings = new Settings();
+			settings.setOperations(List.of("territoriesExport", "exportTerritories",
+					"exportTerritoriesToBuild", "territoryToBuild",
+					"territoryAddressesExport", "bookingsExport", "bookingsStatisticsExport",
+					"export"));
+			settings.setMinConcurrent(2);
+			settings.setMaxConcurrent(4);
+			// Exports unitaires
+			settings.setTargetLatency(Duration.ofSeconds(10));
+			// Exports de plusieurs territoires ou d'une année de réservations : leur durée
+			// normale dépasse 10s, elle ne doit pas réduire la limite à elle seule
+			final Duration multiTerritory = Duration.ofMinutes(2);
+			List.of("territoriesExport", "exportTerritories", "exportTerritoriesToBuild",
+					"bookingsExport", "bookingsStatisticsExport", "export")
+					.forEach(operation -> settings.getOperationTargetLatencies()
+							.put(operation, multiTerritory));
+			settings.setRetryAfter(Duration.ofSeconds(10));
+			return settings;
+		}
+	}
+
+}
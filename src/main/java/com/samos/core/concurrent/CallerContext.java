@@ -0,0 +1,112 @@
+package com.samos.core.concurrent;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Principal;
+import java.util.HexFormat;
+import java.util.Map;
+
+import org.slf4j.MDC;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.samos.core.exception.TechnicalError;
+
+/**
+ * Contexte de la requête d'un appelant, capturé sur son thread pour un traitement fait
+ * pour lui sur un autre thread ({@link MicroBatcher}) : attributs de la requête
+ * ({@link RequestContextHolder}, lus par les intercepteurs Feign qui propagent les
+ * entêtes) et contexte des traces ({@link MDC}).
+ * <p>
+ * L'appelant ({@link #getCaller()}) identifie les droits de la requête : les traitements
+ * partagés ({@link SingleFlight}, {@link MicroBatcher}) ne le sont qu'entre requêtes d'un
+ * même appelant.
+ */
+public final class CallerContext {
+
+	/** Appelant d'une requête sans authentification, ou hors requête. */
+	public static final String ANONYMOUS = "anonymous";
+
+	private final String caller;
+	private final RequestAttributes attributes;
+	private final Map<String, String> mdc;
+
+	private CallerContext(String caller, RequestAttributes attributes, Map<String, String> mdc) {
+		this.caller = caller;
+		this.attributes = attributes;
+		this.mdc = mdc;
+	}
+
+	/**
+	 * @return le contexte de la requête du thread courant
+	 */
+	public static CallerContext current() {
+		final RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		return new CallerContext(caller(attributes), attributes, MDC.getCopyOfContextMap());
+	}
+
+	/**
+	 * @return l'utilisateur authentifié de la requête ("user=..."), sinon l'empreinte de
+	 *     son entête Authorization ("auth=...", jamais le jeton lui-même), sinon
+	 *     {@value #ANONYMOUS}
+	 */
+	public String getCaller() {
+		return caller;
+	}
+
+	/**
+	 * Exécute un traitement sur le thread courant avec le contexte capturé, puis rétablit
+	 * le contexte du thread.
+	 *
+	 * @param task le traitement
+	 */
+	public void run(Runnable task) {
+		final RequestAttributes previousAttributes = RequestContextHolder.getRequestAttributes();
+		final Map<String, String> previousMdc = MDC.getCopyOfContextMap();
+		RequestContextHolder.setRequestAttributes(attributes);
+		setMdc(mdc);
+		try {
+			task.run();
+		}
+		finally {
+			RequestContextHolder.setRequestAttributes(previousAttributes);
+			setMdc(previousMdc);
+		}
+	}
+
+	private static void setMdc(Map<String, String> context) {
+		if (context == null) {
+			MDC.clear();
+		}
+		else {
+			MDC.setContextMap(context);
+		}
+	}
+
+	private static String caller(RequestAttributes attributes) {
+		if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+			return ANONYMOUS;
+		}
+		final Principal principal = servletAttributes.getRequest().getUserPrincipal();
+		if (principal != null) {
+			return "user=" + principal.getName();
+		}
+		final String authorization = servletAttributes.getRequest()
+				.getHeader(HttpHeaders.AUTHORIZATION);
+		return authorization != null ? "auth=" + sha256(authorization) : ANONYMOUS;
+	}
+
+	private static String sha256(String value) {
+		try {
+			return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+					.digest(value.getBytes(StandardCharsets.UTF_8)));
+		}
+		catch (final NoSuchAlgorithmException e) {
+			throw new TechnicalError(e);
+		}
+	}
+
+}
@@ -0,0 +1,107 @@
+package com.samos.core.concurrent;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * {@link DataSource} bornant le nombre de connexions utilisées simultanément.
+ * <p>
+ * Avec des threads virtuels, le nombre de requêtes traitées en parallèle n'est plus
+ * borné par la taille du pool de threads : sans cette borne, des milliers de threads
+ * virtuels peuvent se retrouver en attente d'une connexion du pool JDBC. Les threads en
+ * surnombre attendent ici (sans bloquer de thread porteur) et échouent au-delà du délai
+ * d'attente.
+ */
+public class ConnectionLimitingDataSource extends DelegatingDataSource {
+
+	private final Semaphore permits;
+	private final Duration acquireTimeout;
+
+	/**
+	 * Constructeur.
+	 *
+	 * @param target la {@link DataSource} d'origine
+	 * @param maxConnections le nombre maximal de connexions utilisées simultanément
+	 * @param acquireTimeout le délai d'attente maximal d'une connexion
+	 */
+	public ConnectionLimitingDataSource(DataSource target, int maxConnections,
+			Duration acquireTimeout) {
+		super(target);
+		this.permits = new Semaphore(maxConnections, true);
+		this.acquireTimeout = acquireTimeout;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		acquire();
+		try {
+			return limited(obtainTargetDataSource().getConnection());
+		}
+		catch (SQLException | RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		acquire();
+		try {
+			return limited(obtainTargetDataSource().getConnection(username, password));
+		}
+		catch (SQLException | RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+	}
+
+	/**
+	 * @return le nombre de threads en attente d'une connexion
+	 */
+	public int getWaiting() {
+		return permits.getQueueLength();
+	}
+
+	private void acquire() throws SQLException {
+		try {
+			if (!permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+				throw new SQLTransientConnectionException(
+						"Aucune connexion disponible après " + acquireTimeout.toMillis() + " ms");
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLTransientConnectionException("Attente d'une connexion interrompue", e);
+		}
+	}
+
+	// La place est libérée à la fermeture de la connexion (une seule fois, même si close()
+	// est appelée plusieurs fois)
+	private Connection limited(Connection connection) {
+		final AtomicBoolean released = new AtomicBoolean();
+		return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+				new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+					if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+						permits.release();
+					}
+					try {
+						return method.invoke(connection, args);
+					}
+					catch (InvocationTargetException e) {
+						throw e.getTargetException();
+					}
+				});
+	}
+
+}
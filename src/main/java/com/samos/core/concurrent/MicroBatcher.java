@@ -0,0 +1,250 @@
+package com.samos.core.concurrent;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import com.samos.core.exception.basic.DataNotFoundError;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Regroupement des lectures unitaires concurrentes en un appel groupé ("micro-batch").
+ * <p>
+ * Les ids demandés pendant une courte fenêtre ({@code window}) sont lus par un seul
+ * appel groupé, déclenché à la fin de la fenêtre ou dès que {@code maxBatchSize} ids
+ * sont en attente. Un même id demandé plusieurs fois dans la fenêtre n'est lu qu'une
+ * fois et sa valeur est partagée : elle ne doit pas être modifiée par les appelants.
+ * <p>
+ * Seules les lectures d'un même appelant ({@link CallerContext#getCaller()}) sont
+ * regroupées : l'appel groupé est fait avec les droits de cet appelant. Il est exécuté
+ * sur un autre thread, avec le contexte de la requête du premier appelant du lot
+ * ({@link CallerContext#run(Runnable)}) : les intercepteurs qui propagent les entêtes de
+ * la requête et les traces (MDC) le voient comme un appel unitaire.
+ * <p>
+ * Un id absent du résultat de l'appel groupé lève une {@link DataNotFoundError}
+ * ({@link #get}) ou est laissé à l'appelant ({@link #find}, pour retrouver l'erreur d'une
+ * lecture unitaire) ; une erreur de l'appel groupé est relancée à tous les appelants du
+ * lot.
+ *
+ * <pre>
+ * <code class='java'>
+ * final MicroBatcher&lt;Integer, Territory&gt; territories = new MicroBatcher&lt;&gt;("territories",
+ *         ids -> territoriesApi.getTerritoriesByIds(new BatchIds().ids(List.copyOf(ids))).getTerritories(),
+ *         meterRegistry);
+ * final Territory territory = territories.get(territoryId);
+ * </code>
+ * </pre>
+ *
+ * @param <K> le type des ids
+ * @param <V> le type des valeurs
+ */
+public class MicroBatcher<K, V> {
+
+	/** Fenêtre de regroupement par défaut. */
+	public static final Duration DEFAULT_WINDOW = Duration.ofMillis(2);
+
+	/** Taille maximale par défaut d'un lot. */
+	public static final int DEFAULT_MAX_BATCH_SIZE = 100;
+
+	private static final String METRIC_PREFIX = "microbatch.";
+
+	private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+	// Partagés par toutes les instances : les threads ne font qu'attendre les appels groupés
+	private static final ScheduledExecutorService TIMER = Executors
+			.newSingleThreadScheduledExecutor(daemonThreads("microbatch-timer"));
+	private static final ExecutorService CALLS = Executors
+			.newCachedThreadPool(daemonThreads("microbatch-call"));
+
+	private final String name;
+	private final long windowNanos;
+	private final int maxBatchSize;
+	private final Function<Set<K>, Map<K, V>> batchCall;
+
+	private final ReentrantLock lock = new ReentrantLock();
+	// Lots en attente par appelant
+	private final Map<String, Batch> pending = new HashMap<>();
+
+	private final DistributionSummary batchSizes;
+	private final Counter requests;
+
+	/**
+	 * Constructeur avec la fenêtre et la taille de lot par défaut.
+	 *
+	 * @param name le nom de l'instance, utilisé comme tag des métriques
+	 * @param batchCall l'appel groupé : les valeurs trouvées par id
+	 * @param meterRegistry le registre des métriques
+	 */
+	public MicroBatcher(String name, Function<Set<K>, Map<K, V>> batchCall,
+			MeterRegistry meterRegistry) {
+		this(name, DEFAULT_WINDOW, DEFAULT_MAX_BATCH_SIZE, batchCall, meterRegistry);
+	}
+
+	/**
+	 * Constructeur.
+	 *
+	 * @param name le nom de l'instance, utilisé comme tag des métriques
+	 * @param window la durée pendant laquelle les ids demandés sont regroupés
+	 * @param maxBatchSize le nombre maximal d'ids d'un appel groupé (cf maxItems de
+	 *     BatchIds)
+	 * @param batchCall l'appel groupé : les valeurs trouvées par id
+	 * @param meterRegistry le registre des métriques
+	 */
+	public MicroBatcher(String name, Duration window, int maxBatchSize,
+			Function<Set<K>, Map<K, V>> batchCall, MeterRegistry meterRegistry) {
+		if (maxBatchSize < 1) {
+			throw new IllegalArgumentException("maxBatchSize doit être positif : " + maxBatchSize);
+		}
+		this.name = name;
+		this.windowNanos = window.toNanos();
+		this.maxBatchSize = maxBatchSize;
+		this.batchCall = batchCall;
+		this.batchSizes = DistributionSummary.builder(METRIC_PREFIX + "size") //
+				.description("Nombre d'ids distincts par appel groupé") //
+				.tag("name", name) //
+				.register(meterRegistry);
+		this.requests = Counter.builder(METRIC_PREFIX + "requests") //
+				.description("Lectures unitaires regroupées") //
+				.tag("name", name) //
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Lit une valeur, en la regroupant avec les lectures concurrentes.
+	 *
+	 * @param id l'id
+	 * @return la valeur
+	 * @throws DataNotFoundError si l'id est absent du résultat de l'appel groupé
+	 */
+	public V get(K id) {
+		return find(id).orElseThrow(() -> new DataNotFoundError("{} : {} est inconnu.", name, id));
+	}
+
+	/**
+	 * Lit une valeur, en la regroupant avec les lectures concurrentes du même appelant.
+	 *
+	 * @param id l'id
+	 * @return la valeur, vide si l'id est absent du résultat de l'appel groupé
+	 */
+	public Optional<V> find(K id) {
+		requests.increment();
+
+		final CallerContext context = CallerContext.current();
+		final CompletableFuture<V> result;
+		Batch full = null;
+		lock.lock();
+		try {
+			Batch batch = pending.get(context.getCaller());
+			if (batch == null) {
+				final Batch created = new Batch(context);
+				pending.put(context.getCaller(), created);
+				TIMER.schedule(() -> flush(created), windowNanos, TimeUnit.NANOSECONDS);
+				batch = created;
+			}
+			result = batch.futures.computeIfAbsent(id, key -> new CompletableFuture<>());
+			if (batch.futures.size() >= maxBatchSize) {
+				full = batch;
+				pending.remove(context.getCaller());
+			}
+		}
+		finally {
+			lock.unlock();
+		}
+
+		if (full != null) {
+			// Lot complet : lancé sans attendre la fin de la fenêtre
+			final Batch batch = full;
+			CALLS.execute(() -> call(batch));
+		}
+		return Optional.ofNullable(join(result));
+	}
+
+	private void flush(Batch batch) {
+		lock.lock();
+		try {
+			// Déjà lancé car complet
+			if (!pending.remove(batch.context.getCaller(), batch)) {
+				return;
+			}
+		}
+		finally {
+			lock.unlock();
+		}
+		CALLS.execute(() -> call(batch));
+	}
+
+	private void call(Batch batch) {
+		batch.context.run(() -> complete(batch));
+	}
+
+	private void complete(Batch batch) {
+		batchSizes.record(batch.futures.size());
+
+		final Map<K, V> values;
+		try {
+			values = batchCall.apply(batch.futures.keySet());
+		}
+		catch (RuntimeException | Error e) {
+			batch.futures.values().forEach(future -> future.completeExceptionally(e));
+			return;
+		}
+
+		// null : id absent, traité par l'appelant (cf find)
+		batch.futures.forEach((id, future) -> future.complete(values == null ? null
+				: values.get(id)));
+	}
+
+	private static <V> V join(CompletableFuture<V> result) {
+		try {
+			return result.join();
+		}
+		catch (CompletionException e) {
+			// On relance l'erreur d'origine, comme pour un appel unitaire
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			if (e.getCause() instanceof Error cause) {
+				throw cause;
+			}
+			throw e;
+		}
+	}
+
+	private static ThreadFactory daemonThreads(String prefix) {
+		return runnable -> {
+			final Thread thread = new Thread(runnable, prefix + "-" + THREAD_COUNTER.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
+	private final class Batch {
+
+		// Contexte du premier appelant, le même appelant pour tout le lot
+		private final CallerContext context;
+
+		// Ordre des demandes conservé ; modifié uniquement sous le lock, tant que le lot est en attente
+		private final Map<K, CompletableFuture<V>> futures = new LinkedHashMap<>();
+
+		private Batch(CallerContext context) {
+			this.context = context;
+		}
+	}
+
+}
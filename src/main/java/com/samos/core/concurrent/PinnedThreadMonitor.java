@@ -0,0 +1,83 @@
+package com.samos.core.concurrent;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+import org.springframework.context.SmartLifecycle;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Détection des threads virtuels "épinglés" à leur thread porteur (blocage dans un bloc
+ * {@code synchronized} ou un appel natif), via l'évènement JFR
+ * {@code jdk.VirtualThreadPinned}.
+ * <p>
+ * Chaque épinglage plus long que le seuil est tracé avec le haut de sa pile d'appels et
+ * compté dans la métrique {@code virtualthreads.pinned}.
+ */
+@Slf4j
+public class PinnedThreadMonitor implements SmartLifecycle {
+
+	private static final String EVENT = "jdk.VirtualThreadPinned";
+	private static final int MAX_FRAMES = 8;
+
+	private final Duration threshold;
+	private final Counter pinned;
+	private RecordingStream stream;
+
+	/**
+	 * Constructeur.
+	 *
+	 * @param threshold la durée d'épinglage à partir de laquelle l'évènement est tracé
+	 * @param meterRegistry le registre des métriques
+	 */
+	public PinnedThreadMonitor(Duration threshold, MeterRegistry meterRegistry) {
+		this.threshold = threshold;
+		this.pinned = Counter.builder("virtualthreads.pinned").register(meterRegistry);
+	}
+
+	@Override
+	public synchronized void start() {
+		stream = new RecordingStream();
+		stream.enable(EVENT).withThreshold(threshold).withStackTrace();
+		stream.onEvent(EVENT, this::report);
+		stream.startAsync();
+	}
+
+	@Override
+	public synchronized void stop() {
+		if (stream != null) {
+			stream.close();
+			stream = null;
+		}
+	}
+
+	@Override
+	public synchronized boolean isRunning() {
+		return stream != null;
+	}
+
+	private void report(RecordedEvent event) {
+		pinned.increment();
+		if (log.isWarnEnabled()) {
+			final String frames = event.getStackTrace() == null ? ""
+					: event.getStackTrace().getFrames().stream() //
+							.limit(MAX_FRAMES) //
+							.map(PinnedThreadMonitor::format) //
+							.collect(Collectors.joining("\n\tat ", "\n\tat ", ""));
+			log.warn("Thread virtuel épinglé pendant {} ms{}", event.getDuration().toMillis(),
+					frames);
+		}
+	}
+
+	private static String format(RecordedFrame frame) {
+		return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+				+ ":" + frame.getLineNumber();
+	}
+
+}
@@ -0,0 +1,231 @@
+package com.samos.core.concurrent;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import com.samos.core.exception.RetriableError;
+import com.samos.core.exception.TechnicalError;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Regroupement des requêtes identiques concurrentes ("single-flight").
+ * <p>
+ * Tant qu'un calcul est en cours pour une clé, les appels suivants avec la même clé
+ * attendent ce calcul et en partagent le résultat au lieu de le relancer. Le résultat
+ * reste ensuite partagé pendant une courte durée ({@code resultTtl}). Les erreurs ne
+ * sont jamais conservées : l'appel suivant relance le calcul.
+ * <p>
+ * Le résultat étant partagé entre plusieurs requêtes, il doit pouvoir être relu (objet
+ * non modifié par l'appelant, {@code byte[]} ou
+ * {@link org.springframework.core.io.ByteArrayResource} pour les exports binaires, mais
+ * pas un {@link java.io.InputStream}).
+ * <p>
+ * Les résultats ne sont partagés qu'entre les requêtes d'un même appelant (cf
+ * {@link #key(String, Map)}) : un résultat calculé avec les droits d'un utilisateur
+ * n'est jamais transmis à un autre. Un appel en attente du calcul d'un autre abandonne
+ * au bout de {@code waitTimeout} avec une erreur rejouable.
+ *
+ * <pre>
+ * <code class='java'>
+ * // La clé contient l'appelant de la requête courante
+ * final String key = SingleFlight.key("bookingsExport",
+ *         Map.of("version", version, "groupId", groupId, "year", year));
+ * final byte[] pdf = singleFlight.execute(key, () -> exportService.export(version, groupId, year));
+ * </code>
+ * </pre>
+ */
+public class SingleFlight {
+
+	/** Code de l'erreur levée quand l'attente d'un calcul partagé est trop longue. */
+	public static final TechnicalError.ErrorCode WAIT_TIMEOUT = () -> "SINGLE_FLIGHT_TIMEOUT";
+
+	private static final String METRIC_NAME = "singleflight.requests";
+
+	private static final Duration RETRY_AFTER = Duration.ofSeconds(1);
+
+	private final ConcurrentMap<String, Flight> flights = new ConcurrentHashMap<>();
+	private final Duration resultTtl;
+	private final Duration waitTimeout;
+	private final Counter executed;
+	private final Counter coalesced;
+
+	/**
+	 * Constructeur.
+	 *
+	 * @param name le nom de l'instance, utilisé comme tag des métriques
+	 * @param resultTtl la durée pendant laquelle un résultat reste partagé après la fin
+	 *     du calcul ({@link Duration#ZERO} pour ne partager que les calculs en cours)
+	 * @param waitTimeout la durée maximale d'attente du calcul d'un autre appel
+	 * @param meterRegistry le registre des métriques
+	 */
+	public SingleFlight(String name, Duration resultTtl, Duration waitTimeout,
+			MeterRegistry meterRegistry) {
+		this.resultTtl = resultTtl;
+		this.waitTimeout = waitTimeout;
+		this.executed = Counter.builder(METRIC_NAME) //
+				.tag("name", name) //
+				.tag("result", "executed") //
+				.register(meterRegistry);
+		this.coalesced = Counter.builder(METRIC_NAME) //
+				.tag("name", name) //
+				.tag("result", "coalesced") //
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Construit une clé à partir de l'appelant de la requête courante, de l'opération et
+	 * de ses paramètres normalisés (cf {@link #key(String, String, Map)}).
+	 * <p>
+	 * L'appelant est celui de {@link CallerContext#getCaller()}.
+	 *
+	 * @param operation le nom de l'opération (ex: "bookingsExport")
+	 * @param parameters les paramètres de l'opération
+	 * @return la clé
+	 */
+	public static String key(String operation, Map<String, ?> parameters) {
+		return key(operation, CallerContext.current().getCaller(), parameters);
+	}
+
+	/**
+	 * Construit une clé à partir de l'appelant, de l'opération et de ses paramètres
+	 * normalisés : les paramètres sont triés par nom et les paramètres {@code null} sont
+	 * ignorés.
+	 *
+	 * @param operation le nom de l'opération (ex: "bookingsExport")
+	 * @param caller l'appelant (utilisateur ou tenant) dont les droits ont servi au calcul
+	 * @param parameters les paramètres de l'opération
+	 * @return la clé
+	 */
+	public static String key(String operation, String caller, Map<String, ?> parameters) {
+		final Map<String, Object> sorted = new TreeMap<>();
+		parameters.forEach((name, value) -> {
+			if (value != null) {
+				sorted.put(name, value);
+			}
+		});
+		return caller + ":" + operation + sorted.entrySet().stream() //
+				.map(entry -> entry.getKey() + "=" + format(entry.getValue())) //
+				.collect(Collectors.joining("&", "?", ""));
+	}
+
+	/**
+	 * Exécute le calcul, ou partage le résultat d'un calcul identique en cours ou
+	 * récent.
+	 *
+	 * @param key la clé du calcul (cf {@link #key(String, Map)})
+	 * @param computation le calcul, exécuté dans le thread appelant
+	 * @return le résultat du calcul
+	 */
+	@SuppressWarnings("unchecked")
+	public <V> V execute(String key, Supplier<V> computation) {
+		while (true) {
+			final Flight existing = flights.get(key);
+			if (existing != null && !existing.isExpired()) {
+				coalesced.increment();
+				return (V) await(key, existing);
+			}
+
+			final Flight flight = new Flight();
+			final boolean owner = existing == null ? flights.putIfAbsent(key, flight) == null
+					: flights.replace(key, existing, flight);
+			// Un autre thread a démarré le calcul entre temps : on le rejoint
+			if (owner) {
+				return (V) run(key, flight, computation);
+			}
+		}
+	}
+
+	/**
+	 * @return le nombre de clés actuellement en cours de calcul ou partagées
+	 */
+	public int size() {
+		return flights.size();
+	}
+
+	private Object run(String key, Flight flight, Supplier<?> computation) {
+		executed.increment();
+
+		final Object value;
+		try {
+			value = computation.get();
+		}
+		catch (RuntimeException | Error e) {
+			// On ne partage pas les erreurs au delà des appels déjà en attente
+			flights.remove(key, flight);
+			flight.result.completeExceptionally(e);
+			throw e;
+		}
+
+		if (resultTtl.isZero() || resultTtl.isNegative()) {
+			flights.remove(key, flight);
+		}
+		else {
+			flight.expiresAt = System.nanoTime() + resultTtl.toNanos();
+			CompletableFuture.delayedExecutor(resultTtl.toNanos(), TimeUnit.NANOSECONDS)
+					.execute(() -> flights.remove(key, flight));
+		}
+		flight.result.complete(value);
+		return value;
+	}
+
+	private Object await(String key, Flight flight) {
+		try {
+			return flight.result.get(waitTimeout.toNanos(), TimeUnit.NANOSECONDS);
+		}
+		catch (ExecutionException e) {
+			// On relance l'erreur d'origine, pour que le ResponseEntityExceptionHandler la
+			// traite comme pour l'appelant qui a exécuté le calcul
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			if (e.getCause() instanceof Error cause) {
+				throw cause;
+			}
+			throw new TechnicalError(e.getCause());
+		}
+		catch (TimeoutException e) {
+			// Calcul bloqué : les appels suivants relancent le calcul au lieu de l'attendre
+			flights.remove(key, flight);
+			throw new RetriableError(WAIT_TIMEOUT, RETRY_AFTER,
+					"Calcul {} toujours en cours après {}", key, waitTimeout);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new TechnicalError(e);
+		}
+	}
+
+	private static String format(Object value) {
+		if (value instanceof Collection<?> collection) {
+			return collection.stream().map(String::valueOf).collect(Collectors.joining(","));
+		}
+		return Objects.toString(value);
+	}
+
+	private static final class Flight {
+
+		private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+		// 0 tant que le calcul est en cours
+		private volatile long expiresAt;
+
+		private boolean isExpired() {
+			final long expiration = expiresAt;
+			return expiration != 0 && System.nanoTime() - expiration > 0;
+		}
+	}
+
+}
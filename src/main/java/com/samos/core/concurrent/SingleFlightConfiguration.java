@@ -0,0 +1,37 @@
+package com.samos.core.concurrent;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+
+/**
+ * Déclaration de l'instance {@link SingleFlight} partagée par les lectures et les
+ * exports.
+ * <p>
+ * Propriétés :
+ * <ul>
+ * <li>{@code samos.single-flight.result-ttl} (défaut 2s) : durée pendant laquelle un
+ * résultat reste partagé après la fin du calcul ;</li>
+ * <li>{@code samos.single-flight.wait-timeout} (défaut 60s) : durée maximale d'attente
+ * du calcul d'une autre requête.</li>
+ * </ul>
+ */
+@Configuration
+public class SingleFlightConfiguration {
+
+	@Bean
+	public SingleFlight singleFlight(
+			@Value("${samos.single-flight.result-ttl:2s}") Duration resultTtl,
+			@Value("${samos.single-flight.wait-timeout:60s}") Duration waitTimeout,
+			ObjectProvider<MeterRegistry> meterRegistry) {
+		return new SingleFlight("default", resultTtl, waitTimeout,
+				meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+	}
+
+}
@@ -0,0 +1,77 @@
+package com.samos.core.concurrent;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.lang.NonNull;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+
+/**
+ * Mode d'exécution sur threads virtuels, activé (sur un JDK 21+) par la propriété Spring
+ * Boot {@code spring.threads.virtual.enabled=true}.
+ * <p>
+ * Spring Boot exécute alors le traitement des requêtes Tomcat sur des threads virtuels ;
+ * les appels Feign synchrones étant exécutés dans le thread de la requête, ils en
+ * bénéficient également. Cette configuration ajoute :
+ * <ul>
+ * <li>la détection des épinglages de threads virtuels (cf {@link PinnedThreadMonitor}),
+ * seuil {@code samos.virtual-threads.pinning-threshold} (défaut 20ms) ;</li>
+ * <li>une borne sur l'utilisation des connexions du pool principal de la base de
+ * données (cf {@link ConnectionLimitingDataSource}) :
+ * {@code samos.virtual-threads.max-db-connections} (défaut 10, la taille par défaut du
+ * pool Hikari), {@code samos.virtual-threads.db-acquire-timeout} (défaut 30s) et
+ * {@code samos.virtual-threads.data-source-bean} (défaut {@code dataSource}, le bean
+ * créé par Spring Boot). Les autres {@link DataSource} ne sont pas modifiées.</li>
+ * </ul>
+ * La comparaison avec les threads de plateforme se fait avec le test de charge
+ * ({@code -Dloadtest.threading=compare}, cf README).
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadsConfiguration {
+
+	@Bean
+	public PinnedThreadMonitor pinnedThreadMonitor(Environment environment,
+			ObjectProvider<MeterRegistry> meterRegistry) {
+		return new PinnedThreadMonitor(
+				environment.getProperty("samos.virtual-threads.pinning-threshold",
+						Duration.class, Duration.ofMillis(20)),
+				meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+	}
+
+	@Bean
+	public static BeanPostProcessor connectionLimitingDataSourcePostProcessor(
+			Environment environment) {
+		final int maxConnections = environment
+				.getProperty("samos.virtual-threads.max-db-connections", Integer.class, 10);
+		final Duration acquireTimeout = environment.getProperty(
+				"samos.virtual-threads.db-acquire-timeout", Duration.class,
+				Duration.ofSeconds(30));
+		final String dataSourceBean = environment
+				.getProperty("samos.virtual-threads.data-source-bean", "dataSource");
+
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(@NonNull Object bean,
+					@NonNull String beanName) {
+				if (dataSourceBean.equals(beanName) && bean instanceof DataSource dataSource
+						&& !(bean instanceof ConnectionLimitingDataSource)) {
+					return new ConnectionLimitingDataSource(dataSource, maxConnections,
+							acquireTimeout);
+				}
+				return bean;
+			}
+		};
+	}
+
+}
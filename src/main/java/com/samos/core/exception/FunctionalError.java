@@ -27,6 +27,7 @@ public class FunctionalError extends ErrorWithParameters {
 	 * <li>{@link com.samos.api.territory.exception.basic.DataNotFoundError}</li>
 	 * <li>{@link com.samos.api.territory.exception.basic.DataAccessForbiddenError}</li>
 	 * <li>{@link com.samos.api.territory.exception.basic.DataAccessUnauthorizedError}</li>
+	 * <li>{@link com.samos.api.territory.exception.basic.PreconditionFailedError}</li>
 	 * </ul>
 	 * 
 	 * Exemples:
@@ -60,7 +61,8 @@ public class FunctionalError extends ErrorWithParameters {
 		UNAUTHORIZED, //
 		FORBIDDEN, //
 		NOT_FOUND, //
-		INVALID_FORMAT
+		INVALID_FORMAT, //
+		PRECONDITION_FAILED
 	}
 
 	private final ErrorCode code; // NOSONAR (Make "code" transient or serializable. =>
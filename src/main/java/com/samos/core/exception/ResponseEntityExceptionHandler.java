@@ -41,6 +41,8 @@ public class ResponseEntityExceptionHandler extends org.springframework.web.serv
             httpStatus = HttpStatus.UNAUTHORIZED;
         } else if (FunctionalError.BasicErrorCode.FORBIDDEN.equals(ex.getCode())) {
             httpStatus = HttpStatus.FORBIDDEN;
+        } else if (FunctionalError.BasicErrorCode.PRECONDITION_FAILED.equals(ex.getCode())) {
+            httpStatus = HttpStatus.PRECONDITION_FAILED;
         } else {
             // Si le type d'erreur n'est pas un des précédents, c'est forcément une erreur
             // 400
@@ -126,6 +128,35 @@ public class ResponseEntityExceptionHandler extends org.springframework.web.serv
         return handleExceptionInternal(ex, body, headers, status, request);
     }
 
+    // Une erreur technique rejouable est retournée en 503 (avec l'entête Retry-After si
+    // le délai est connu), les autres erreurs techniques sont traitées par la bannette
+    // par défaut
+    @ExceptionHandler({ TechnicalError.class })
+    public ResponseEntity<Object> handleTechnicalError(TechnicalError ex,
+            WebRequest request) {
+
+        if (!TechnicalError.TechnicalErrorType.RETRIABLE.equals(ex.getType())) {
+            return handleDefaultException(ex, request);
+        }
+
+        // Une erreur rejouable n'est pas anormale (rejet pour surcharge, etc.), on la
+        // trace sans la stack
+        log.warn(ex.toString());
+
+        final HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PROBLEM_JSON);
+        if (ex instanceof RetriableError retriableError
+                && retriableError.getRetryAfter() != null) {
+            headers.set(HttpHeaders.RETRY_AFTER,
+                    String.valueOf(Math.max(1, retriableError.getRetryAfter().toSeconds())));
+        }
+
+        final Object body = ApiErrorMapper.map(ex);
+
+        return handleExceptionInternal(ex, body, headers, HttpStatus.SERVICE_UNAVAILABLE,
+                request);
+    }
+
     // Bannette par défaut si l'exception ne correspond à aucun type géré spécifiquement
     @ExceptionHandler({ Exception.class })
     public ResponseEntity<Object> handleDefaultException(Exception ex,
@@ -0,0 +1,38 @@
+package com.samos.core.exception;
+
+import java.time.Duration;
+
+import lombok.Getter;
+
+/**
+ * La classe {@code RetriableError} représente une erreur technique rejouable
+ * ({@link TechnicalError.TechnicalErrorType#RETRIABLE}) pour laquelle on connait le
+ * délai au bout duquel l'appelant peut rejouer sa requête.
+ * <p>
+ * Elle est retournée à l'appelant sous la forme d'une erreur 503 avec l'entête
+ * Retry-After.
+ */
+@Getter
+public class RetriableError extends TechnicalError {
+
+	private static final long serialVersionUID = 3570927818307440712L;
+
+	private final Duration retryAfter;
+
+	/**
+	 * Construit une nouvelle erreur technique rejouable.
+	 *
+	 * @param code le code de l'erreur.
+	 * @param retryAfter le délai au bout duquel l'appelant peut rejouer sa requête.
+	 * @param message le message d'erreur. <br>
+	 *     Le message peut comporter des paramètres qui doivent être formalisés par des
+	 *     accolades "{}".
+	 * @param parameters (faculatif) les paramètres du message d'erreur.
+	 */
+	public RetriableError(ErrorCode code, Duration retryAfter, String message,
+			Object... parameters) {
+		super(code, null, TechnicalErrorType.RETRIABLE, message, parameters);
+		this.retryAfter = retryAfter;
+	}
+
+}
@@ -0,0 +1,76 @@
+package com.samos.core.exception.basic;
+
+import com.samos.core.exception.FunctionalError;
+
+/**
+ * La classe {@code PreconditionFailedError} est une forme de {@link RuntimeException} qui
+ * représente une erreur fonctionnelle indiquant que la version de la donnée transmise
+ * par l'appelant (If-Match) n'est plus la version courante.
+ * <p>
+ *
+ * @see FunctionalError
+ */
+public class PreconditionFailedError extends FunctionalError { // NOSONAR
+
+	private static final long serialVersionUID = -4411872392718540313L;
+
+	/**
+	 * Construit une nouvelle erreur fonctionnelle indiquant que la version de la donnée
+	 * n'est plus la version courante.
+	 */
+	public PreconditionFailedError() {
+		this(null);
+	}
+
+	/**
+	 * Construit une nouvelle erreur fonctionnelle indiquant que la version de la donnée
+	 * n'est plus la version courante, en précisant un message d'erreur et des paramètres
+	 * pour l'erreur (faculatif).<br>
+	 * Les paramètres permettent d'isoler le contenu statique du message du contenu
+	 * variable, permettant ainsi d'identifier plus facilement un motif d'erreur.<br>
+	 * <b>Tout message qui comporte des données variables doit utiliser les paramètres
+	 * pour transmettre ces données variables.</b>
+	 *
+	 * @param message le message d'erreur. <br>
+	 *     Le message peut comporter des paramètres qui doivent être formalisés par des
+	 *     accolades "{}".
+	 * @param parameters (faculatif) les paramètres du message d'erreur. <br>
+	 *     Les paramètres doivent être transmis dans l'ordre dans lequel ils apparaissent
+	 *     dans le message.
+	 * 
+	 *     <p>
+	 *     Exemple:
+	 * 
+	 *     <pre>
+	 * <code class='java'>
+	 * // Crée une erreur fonctionnelle avec des paramètres
+	 * throw new PreconditionFailedError("Le groupe {} a été modifié entre temps.", "1");
+	 *</code>
+	 *     </pre>
+	 */
+	public PreconditionFailedError(String message, Object... parameters) {
+		this(null, message, parameters);
+	}
+
+	/**
+	 * Identique à {@link #PreconditionFailedError} mais permet de préciser
+	 * la root cause de l'erreur.
+	 * 
+	 * @param cause la root cause de l'erreur.
+	 */
+	public PreconditionFailedError(Throwable cause, String message, Object... parameters) {
+		super(BasicErrorCode.PRECONDITION_FAILED, cause, message, parameters);
+	}
+
+	@Override
+	public String toString() {
+		return "PreconditionFailedError [" + //
+				"code=" + getCode().name() + //
+				(getMessageTemplate() != null ? ", message=" + getMessageTemplate() : "")
+				+ //
+				(getParameters() != null && !getParameters().isEmpty()
+						? ", parameters=" + getParameters()
+						: "")
+				+ "]";
+	}
+}
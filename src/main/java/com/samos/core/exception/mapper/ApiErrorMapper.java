@@ -13,6 +13,7 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import com.samos.core.exception.ApiError;
 import com.samos.core.exception.ApiError.Error.ErrorBuilder;
 import com.samos.core.exception.FunctionalError;
+import com.samos.core.exception.TechnicalError;
 
 import lombok.experimental.UtilityClass;
 
@@ -96,6 +97,19 @@ public class ApiErrorMapper {
         return ApiError.builder().errors(apiErrors).build();
     }
 
+    // Mapping des erreurs techniques rejouables (les autres erreurs techniques ne sont
+    // pas détaillées à l'appelant)
+    public static ApiError map(TechnicalError sourceError) {
+
+        final Set<ApiError.Error> apiErrors = Stream.of(ApiError.Error.builder() //
+                .code(sourceError.getCode() != null ? sourceError.getCode().name()
+                        : sourceError.getType().name()) //
+                .description(sourceError.getMessageTemplate()) //
+                .build()).collect(Collectors.toSet());
+
+        return ApiError.builder().errors(apiErrors).build();
+    }
+
     public static ApiError map(Exception sourceError) {
 
         final Set<ApiError.Error> apiErrors = Stream.of(ApiError.Error.builder() //
@@ -0,0 +1,31 @@
+package com.samos.core.http;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Négociation de contenu binaire (Smile) pour les appels de service à service.
+ * <p>
+ * Les endpoints de liste dont le contrat déclare {@code application/x-jackson-smile}
+ * répondent en Smile lorsque l'appelant le demande (entête Accept). Le mapper Smile est
+ * construit à partir du {@link Jackson2ObjectMapperBuilder} de Spring Boot pour produire
+ * les mêmes représentations qu'en JSON (dates, énumérations, modules).
+ * <p>
+ * Les erreurs restent retournées en JSON ({@code ApiError}), le
+ * {@code ResponseEntityExceptionHandler} forçant leur Content-Type.
+ */
+@Configuration
+public class BinaryContentConfiguration {
+
+	@Bean
+	public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(
+			Jackson2ObjectMapperBuilder builder) {
+		return new MappingJackson2SmileHttpMessageConverter(
+				builder.factory(new SmileFactory()).build());
+	}
+
+}
@@ -0,0 +1,205 @@
+package com.samos.core.http;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.samos.core.exception.basic.PreconditionFailedError;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Gestion des requêtes conditionnelles (ETag, If-None-Match, If-Modified-Since,
+ * If-Match).
+ * <p>
+ * Les ETag sont calculés à partir de la colonne version des entités (et de celle des
+ * associations sérialisées dans le body), jamais à partir du body sérialisé : une
+ * réponse 304 n'a donc pas besoin de sérialiser le body.
+ *
+ * <pre>
+ * <code class='java'>
+ * // Lecture
+ * final Group group = groupRepository.findById(id).orElseThrow(DataNotFoundError::new);
+ * return ConditionalRequests.ok(ConditionalRequests.etag("group", id, group.getVersion()),
+ *         group.getUpdatedAt(), () -> groupMapper.map(group));
+ *
+ * // Lecture d'une ressource sérialisant ses associations
+ * return ConditionalRequests.ok(ConditionalRequests.etag("territory", id, territory.getVersion(),
+ *         territory.getGroup().getVersion(), territory.getCity().getVersion(),
+ *         ConditionalRequests.version(parentVersion)), territory.getUpdatedAt(),
+ *         () -> territoryMapper.map(territory));
+ *
+ * // Mise à jour
+ * ConditionalRequests.checkIfMatch(ConditionalRequests.etag("group", id, group.getVersion()));
+ * </code>
+ * </pre>
+ */
+@UtilityClass
+public class ConditionalRequests {
+
+	private static final String WILDCARD = "*";
+	private static final String WEAK_PREFIX = "W/";
+	private static final long SEED = 1125899906842597L;
+	private static final long[] NO_VERSIONS = {};
+
+	/**
+	 * Calcule l'ETag d'une ressource unitaire.
+	 * <p>
+	 * Les associations sérialisées dans le body (ex: assemblée, ville et territoire
+	 * parent d'un territoire) ont leur propre version : leurs versions doivent être
+	 * fournies, dans un ordre fixe, pour qu'une modification d'une association change
+	 * l'ETag. Une association absente est transmise avec la version -1.
+	 *
+	 * @param type le type de la ressource (ex: "territory")
+	 * @param id l'identifiant de la ressource
+	 * @param version la valeur de la colonne version de l'entité
+	 * @param embeddedVersions les versions des associations sérialisées dans le body
+	 * @return l'ETag (fort), entre guillemets
+	 */
+	public static String etag(String type, Object id, long version, long... embeddedVersions) {
+		if (embeddedVersions.length == 0) {
+			return quote(type + "-" + id + "-v" + version);
+		}
+		return quote(type + "-" + id + "-v" + version + "-"
+				+ Long.toHexString(hash(SEED, embeddedVersions)));
+	}
+
+	/**
+	 * Calcule l'ETag d'une liste de ressources à partir des couples (id, version) de ses
+	 * éléments : tout ajout, suppression, modification ou changement d'ordre produit un
+	 * ETag différent.
+	 *
+	 * @param type le type de la ressource (ex: "territories")
+	 * @param elements les éléments de la liste (seuls l'id et la version sont lus)
+	 * @param id la fonction d'accès à l'identifiant
+	 * @param version la fonction d'accès à la version
+	 * @return l'ETag (fort), entre guillemets
+	 */
+	public static <T> String etag(String type, Collection<T> elements,
+			Function<T, Object> id, ToLongFunction<T> version) {
+		return etag(type, elements, id, version, element -> NO_VERSIONS);
+	}
+
+	/**
+	 * Calcule l'ETag d'une liste de ressources dont les éléments sérialisent des
+	 * associations (cf {@link #etag(String, Object, long, long...)}).
+	 *
+	 * @param type le type de la ressource (ex: "territories")
+	 * @param elements les éléments de la liste
+	 * @param id la fonction d'accès à l'identifiant
+	 * @param version la fonction d'accès à la version
+	 * @param embeddedVersions la fonction d'accès aux versions des associations de
+	 *     l'élément, dans un ordre fixe
+	 * @return l'ETag (fort), entre guillemets
+	 */
+	public static <T> String etag(String type, Collection<T> elements,
+			Function<T, Object> id, ToLongFunction<T> version,
+			Function<T, long[]> embeddedVersions) {
+		long hash = SEED;
+		for (final T element : elements) {
+			hash = 31 * hash + Objects.hashCode(id.apply(element));
+			hash = 31 * hash + version.applyAsLong(element);
+			hash = hash(hash, embeddedVersions.apply(element));
+		}
+		return quote(type + "-" + elements.size() + "-" + Long.toHexString(hash));
+	}
+
+	/**
+	 * @param version la version d'une association facultative, {@code null} si absente
+	 * @return la version à transmettre au calcul des ETag
+	 */
+	public static long version(Long version) {
+		return version != null ? version : -1;
+	}
+
+	/**
+	 * Retourne une réponse 304 si la version détenue par l'appelant (If-None-Match /
+	 * If-Modified-Since) est à jour, sinon une réponse 200 avec le body fourni, l'ETag et
+	 * la date de dernière modification.
+	 *
+	 * @param etag l'ETag courant de la ressource
+	 * @param lastModified la date de dernière modification (facultative), la plus récente
+	 *     de la ressource et des associations sérialisées dans le body
+	 * @param body le fournisseur du body, qui n'est appelé qu'en cas de réponse 200
+	 * @return la réponse
+	 */
+	public static <T> ResponseEntity<T> ok(String etag, Instant lastModified,
+			Supplier<T> body) {
+
+		final long lastModifiedMillis = lastModified != null ? lastModified.toEpochMilli()
+				: -1;
+
+		// Spring positionne lui même le statut 304 et les entêtes sur la réponse
+		if (currentRequest().checkNotModified(etag, lastModifiedMillis)) {
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+		}
+
+		final ResponseEntity.BodyBuilder builder = ResponseEntity.ok() //
+				.eTag(etag) //
+				// Oblige les caches clients à revalider la version à chaque appel
+				.cacheControl(CacheControl.noCache());
+		if (lastModified != null) {
+			builder.lastModified(lastModified);
+		}
+		return builder.body(body.get());
+	}
+
+	/**
+	 * Contrôle l'entête If-Match de la requête courante avant une mise à jour.
+	 * L'absence d'entête n'est pas une erreur (la mise à jour est alors inconditionnelle).
+	 *
+	 * @param currentEtag l'ETag de la version courante de la ressource
+	 * @throws PreconditionFailedError si aucune des versions transmises n'est la version
+	 *     courante
+	 */
+	public static void checkIfMatch(String currentEtag) {
+		final String ifMatch = currentRequest().getHeader(HttpHeaders.IF_MATCH);
+		if (!StringUtils.hasText(ifMatch)) {
+			return;
+		}
+
+		for (final String candidate : StringUtils.commaDelimitedListToStringArray(ifMatch)) {
+			final String value = candidate.trim();
+			// La comparaison If-Match est une comparaison forte : les ETag faibles ne
+			// correspondent jamais
+			if (WILDCARD.equals(value)
+					|| !value.startsWith(WEAK_PREFIX) && value.equals(currentEtag)) {
+				return;
+			}
+		}
+
+		throw new PreconditionFailedError(
+				"La version {} n'est plus la version courante ({}).", ifMatch, currentEtag);
+	}
+
+	private static long hash(long seed, long[] versions) {
+		long hash = seed;
+		for (final long version : versions) {
+			hash = 31 * hash + version;
+		}
+		return hash;
+	}
+
+	private static String quote(String value) {
+		return "\"" + value + "\"";
+	}
+
+	private static ServletWebRequest currentRequest() {
+		final ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder
+				.currentRequestAttributes();
+		return new ServletWebRequest(attributes.getRequest(), attributes.getResponse());
+	}
+
+}
@@ -0,0 +1,91 @@
+package com.samos.core.jpa;
+
+import java.util.List;
+import java.util.Map;
+
+import jakarta.persistence.EntityGraph;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Subgraph;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Graphes de chargement des opérations de liste.
+ * <p>
+ * Sans graphe, la sérialisation d'une liste déclenche une requête par association et
+ * par ligne (N+1). Un graphe charge les associations sérialisées dans la même requête
+ * que la liste ; les associations hors graphe restent chargées par lots (cf
+ * {@link JpaFetchConfiguration}).
+ * <p>
+ * Les chemins reprennent les propriétés des modèles des contrats d'interface.
+ *
+ * <pre>
+ * <code class='java'>
+ * return entityManager.createQuery("from Booking b where b.territory.id = :id", Booking.class)
+ *         .setParameter("id", id)
+ *         .setHint(EntityGraphs.FETCH_GRAPH,
+ *                 EntityGraphs.of(entityManager, Booking.class, EntityGraphs.BOOKING_LIST))
+ *         .getResultList();
+ * </code>
+ * </pre>
+ */
+@UtilityClass
+public class EntityGraphs {
+
+	/** Hint JPA d'application d'un graphe de chargement. */
+	public static final String FETCH_GRAPH = "jakarta.persistence.fetchgraph";
+
+	/** getReservations et export des attributions. */
+	public static final List<String> BOOKING_LIST = List.of("territory.group",
+			"territory.city", "territory.parent", "contact", "event");
+
+	/** getTerritoryAddresses et export des adresses. */
+	public static final List<String> TERRITORY_ADDRESS_LIST = List.of("territory", "zone",
+			"address", "User");
+
+	/** getTerritories, getTerritoriesByIds et exports de territoires. */
+	public static final List<String> TERRITORY_LIST = List.of("group", "city", "parent");
+
+	/** getTerritoryPhotos et export des photos. */
+	public static final List<String> PHOTO_LIST = List.of("territory");
+
+	/** getPhotosByIds et getTerritoriesPhotos. */
+	public static final List<String> PHOTO_BATCH = List.of("territory.group", "territory.city");
+
+	/**
+	 * Construit un graphe de chargement à partir de chemins d'attributs (les
+	 * sous-attributs sont séparés par des points).
+	 *
+	 * @param entityManager l'entity manager
+	 * @param entityClass la classe de l'entité racine
+	 * @param attributePaths les chemins des attributs à charger
+	 * @return le graphe
+	 */
+	public static <T> EntityGraph<T> of(EntityManager entityManager, Class<T> entityClass,
+			List<String> attributePaths) {
+		final EntityGraph<T> graph = entityManager.createEntityGraph(entityClass);
+		for (final String path : attributePaths) {
+			final String[] attributes = path.split("\\.");
+			if (attributes.length == 1) {
+				graph.addAttributeNodes(attributes[0]);
+				continue;
+			}
+			Subgraph<Object> subgraph = graph.addSubgraph(attributes[0]);
+			for (int i = 1; i < attributes.length - 1; i++) {
+				subgraph = subgraph.addSubgraph(attributes[i]);
+			}
+			subgraph.addAttributeNodes(attributes[attributes.length - 1]);
+		}
+		return graph;
+	}
+
+	/**
+	 * Identique à {@link #of(EntityManager, Class, List)} mais retourne directement les
+	 * hints à passer à {@code EntityManager.find} ou à une requête.
+	 */
+	public static Map<String, Object> hints(EntityManager entityManager,
+			Class<?> entityClass, List<String> attributePaths) {
+		return Map.of(FETCH_GRAPH, of(entityManager, entityClass, attributePaths));
+	}
+
+}
@@ -0,0 +1,107 @@
+package com.samos.core.jpa;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Lecture d'entités par liste d'ids avec une requête {@code IN} par lot d'ids, pour
+ * les opérations de lecture groupée (getTerritoriesByIds, getPhotosByIds...).
+ * <p>
+ * Les ids sont dédoublonnés et découpés en lots de {@link #DEFAULT_CHUNK_SIZE} ids au
+ * plus (limite de taille des clauses {@code IN} des bases). Le nombre de paramètres de
+ * chaque requête est arrondi par Hibernate à la puissance de 2 supérieure pour limiter
+ * le nombre de plans d'exécution (cf {@link JpaFetchConfiguration}).
+ *
+ * <pre>
+ * <code class='java'>
+ * final Map&lt;Integer, Territory&gt; territories = InQueries.findByIds(ids,
+ *         chunk -&gt; entityManager
+ *                 .createQuery("from Territory t where t.id in :ids", Territory.class)
+ *                 .setParameter("ids", chunk)
+ *                 .setHint(EntityGraphs.FETCH_GRAPH, EntityGraphs.of(entityManager,
+ *                         Territory.class, EntityGraphs.TERRITORY_LIST))
+ *                 .getResultList(),
+ *         Territory::getId);
+ * </code>
+ * </pre>
+ */
+@UtilityClass
+public class InQueries {
+
+	/** Nombre maximum d'ids par requête. */
+	public static final int DEFAULT_CHUNK_SIZE = 500;
+
+	/**
+	 * @param ids les ids recherchés
+	 * @param query la requête {@code IN} sur un lot d'ids
+	 * @param idOf l'id d'une entité
+	 * @return les entités trouvées par id, dans l'ordre des ids recherchés (les ids
+	 *     inconnus sont absents)
+	 */
+	public static <I, E> Map<I, E> findByIds(Collection<I> ids, Function<List<I>, List<E>> query,
+			Function<E, I> idOf) {
+		return findByIds(ids, DEFAULT_CHUNK_SIZE, query, idOf);
+	}
+
+	/**
+	 * @param ids les ids recherchés
+	 * @param chunkSize le nombre maximum d'ids par requête
+	 * @param query la requête {@code IN} sur un lot d'ids
+	 * @param idOf l'id d'une entité
+	 * @return les entités trouvées par id, dans l'ordre des ids recherchés (les ids
+	 *     inconnus sont absents)
+	 */
+	public static <I, E> Map<I, E> findByIds(Collection<I> ids, int chunkSize,
+			Function<List<I>, List<E>> query, Function<E, I> idOf) {
+		final List<I> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+		final Map<I, E> found = new HashMap<>(distinct.size() * 2);
+		for (int from = 0; from < distinct.size(); from += chunkSize) {
+			final List<I> chunk = distinct.subList(from, Math.min(from + chunkSize, distinct.size()));
+			for (final E entity : query.apply(chunk)) {
+				found.put(idOf.apply(entity), entity);
+			}
+		}
+
+		final Map<I, E> ordered = new LinkedHashMap<>(found.size() * 2);
+		for (final I id : distinct) {
+			final E entity = found.get(id);
+			if (entity != null) {
+				ordered.put(id, entity);
+			}
+		}
+		return ordered;
+	}
+
+	/**
+	 * Variante pour les associations multiples (ex: photos par id de territoire).
+	 *
+	 * @param ids les ids des entités parentes
+	 * @param query la requête {@code IN} sur un lot d'ids des entités parentes
+	 * @param parentIdOf l'id de l'entité parente d'une entité
+	 * @return les entités trouvées par id d'entité parente, dans l'ordre des ids
+	 *     recherchés (les ids sans entité sont associés à une liste vide)
+	 */
+	public static <I, E> Map<I, List<E>> findAllByParentIds(Collection<I> ids,
+			Function<List<I>, List<E>> query, Function<E, I> parentIdOf) {
+		final List<I> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+		final Map<I, List<E>> found = new LinkedHashMap<>(distinct.size() * 2);
+		distinct.forEach(id -> found.put(id, new ArrayList<>()));
+		for (int from = 0; from < distinct.size(); from += DEFAULT_CHUNK_SIZE) {
+			final List<I> chunk = distinct.subList(from,
+					Math.min(from + DEFAULT_CHUNK_SIZE, distinct.size()));
+			for (final E entity : query.apply(chunk)) {
+				found.get(parentIdOf.apply(entity)).add(entity);
+			}
+		}
+		return found;
+	}
+
+}
@@ -0,0 +1,73 @@
+package com.samos.core.jpa;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Paramétrage du chargement des associations par Hibernate.
+ * <ul>
+ * <li>chargement par lots des associations paresseuses hors graphe de chargement (cf
+ * {@link EntityGraphs}) : {@code samos.jpa.batch-fetch-size} (défaut 100), une valeur
+ * {@code hibernate.default_batch_fetch_size} explicite restant prioritaire ;</li>
+ * <li>clauses {@code IN} des lectures groupées (cf {@link InQueries}) : nombre de
+ * paramètres arrondi à la puissance de 2 supérieure, pour réutiliser les plans
+ * d'exécution ;</li>
+ * <li>comptage des requêtes SQL de chaque requête HTTP, retourné dans l'entête
+ * {@value SqlStatementCounter#HEADER} (cf {@link SqlStatementCounter}) :
+ * {@code samos.jpa.count-statements} (défaut false, à activer dans les tests), l'inspecteur
+ * de requêtes déjà déclaré restant appelé.</li>
+ * </ul>
+ */
+@Configuration
+public class JpaFetchConfiguration {
+
+	@Bean
+	public HibernatePropertiesCustomizer batchFetchHibernatePropertiesCustomizer(
+			@Value("${samos.jpa.batch-fetch-size:100}") int batchFetchSize,
+			@Value("${samos.jpa.count-statements:false}") boolean countStatements) {
+		return properties -> {
+			properties.putIfAbsent(AvailableSettings.DEFAULT_BATCH_FETCH_SIZE, batchFetchSize);
+			properties.putIfAbsent(AvailableSettings.IN_CLAUSE_PARAMETER_PADDING, true);
+			if (countStatements) {
+				// Chaîné à l'inspecteur de l'application, qui peut réécrire les requêtes
+				properties.compute(AvailableSettings.STATEMENT_INSPECTOR,
+						(name, inspector) -> new SqlStatementCounter(statementInspector(inspector)));
+			}
+		};
+	}
+
+	/**
+	 * @param setting la valeur de {@code hibernate.session_factory.statement_inspector} :
+	 *     instance, classe ou nom de classe, comme l'accepte Hibernate
+	 * @return l'inspecteur, ou {@code null} s'il n'est pas déclaré
+	 */
+	private static StatementInspector statementInspector(Object setting) {
+		if (setting == null || setting instanceof StatementInspector) {
+			return (StatementInspector) setting;
+		}
+		final Class<?> type = setting instanceof Class<?> clazz ? clazz
+				: ClassUtils.resolveClassName(setting.toString().trim(),
+						JpaFetchConfiguration.class.getClassLoader());
+		return BeanUtils.instantiateClass(type, StatementInspector.class);
+	}
+
+	@Bean
+	@ConditionalOnProperty(prefix = "samos.jpa", name = "count-statements", havingValue = "true")
+	public FilterRegistrationBean<SqlStatementCountFilter> sqlStatementCountFilter() {
+		final FilterRegistrationBean<SqlStatementCountFilter> registration = //
+				new FilterRegistrationBean<>(new SqlStatementCountFilter());
+		// Après le ServerTimingFilter, avant la sérialisation de la réponse
+		registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+		return registration;
+	}
+
+}
@@ -0,0 +1,60 @@
+package com.samos.core.jpa;
+
+import java.io.IOException;
+
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Retourne le nombre de requêtes SQL émises pour chaque requête HTTP dans l'entête
+ * {@value SqlStatementCounter#HEADER} (cf {@link SqlStatementCounter}).
+ * <p>
+ * La réponse est mise en mémoire jusqu'à la fin du traitement, sérialisation comprise.
+ * Pour un traitement asynchrone, l'entête est ajouté à la fin du dispatch de reprise et
+ * totalise les requêtes des dispatchs ; les requêtes émises par un autre thread (ex:
+ * {@code StreamingResponseBody}) ne sont pas comptées.
+ */
+public class SqlStatementCountFilter extends OncePerRequestFilter {
+
+	private static final String ATTRIBUTE = SqlStatementCountFilter.class.getName() + ".count";
+
+	@Override
+	protected boolean shouldNotFilterAsyncDispatch() {
+		return false;
+	}
+
+	@Override
+	protected void doFilterInternal(@NonNull HttpServletRequest request,
+			@NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
+			throws ServletException, IOException {
+		final ContentCachingResponseWrapper wrapper = isAsyncDispatch(request)
+				? WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class)
+				: new ContentCachingResponseWrapper(response);
+		if (wrapper == null) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+
+		SqlStatementCounter.reset();
+		try {
+			filterChain.doFilter(request, wrapper);
+		}
+		finally {
+			final Object previous = request.getAttribute(ATTRIBUTE);
+			final int count = (previous != null ? (int) previous : 0) + SqlStatementCounter.count();
+			request.setAttribute(ATTRIBUTE, count);
+			if (!isAsyncStarted(request)) {
+				wrapper.setHeader(SqlStatementCounter.HEADER, String.valueOf(count));
+				wrapper.copyBodyToResponse();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,69 @@
+package com.samos.core.jpa;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Compteur des requêtes SQL émises par Hibernate pour la requête HTTP en cours.
+ * <p>
+ * Le compteur est propre au thread de traitement de la requête : il est remis à zéro
+ * au début de chaque requête et son total est retourné à l'appelant dans l'entête
+ * {@value #HEADER} (cf {@link SqlStatementCountFilter}). Les tests des endpoints lisent
+ * cet entête, le compteur d'un thread client ne voyant jamais les requêtes SQL du
+ * serveur :
+ *
+ * <pre>
+ * <code class='java'>
+ * final ApiResponse&lt;List&lt;Booking&gt;&gt; response = territoriesApi.getReservationsWithHttpInfo(territoryId);
+ * final int statements = Integer.parseInt(response.getHeaders()
+ *         .get(SqlStatementCounter.HEADER.toLowerCase()).iterator().next());
+ * </code>
+ * </pre>
+ *
+ * Le compteur et l'entête sont activés par {@code samos.jpa.count-statements=true} (cf
+ * {@link JpaFetchConfiguration}), à réserver aux tests : la réponse est mise en mémoire
+ * pour ajouter l'entête après la sérialisation, qui peut elle-même émettre des requêtes.
+ * Un {@link StatementInspector} déjà déclaré par l'application est conservé : chaque
+ * requête lui est transmise après comptage.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+	private static final long serialVersionUID = -2583719664072531198L;
+
+	/** Entête de la réponse portant le nombre de requêtes SQL émises. */
+	public static final String HEADER = "X-Sql-Statement-Count";
+
+	private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+	private final StatementInspector delegate;
+
+	/**
+	 * Constructeur.
+	 *
+	 * @param delegate l'inspecteur déclaré par l'application, ou {@code null}
+	 */
+	public SqlStatementCounter(StatementInspector delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public String inspect(String sql) {
+		COUNT.get()[0]++;
+		return delegate == null ? sql : delegate.inspect(sql);
+	}
+
+	/**
+	 * Remet à zéro le compteur du thread courant.
+	 */
+	public static void reset() {
+		COUNT.get()[0] = 0;
+	}
+
+	/**
+	 * @return le nombre de requêtes émises par le thread courant depuis le dernier
+	 *     {@link #reset()}
+	 */
+	public static int count() {
+		return COUNT.get()[0];
+	}
+
+}
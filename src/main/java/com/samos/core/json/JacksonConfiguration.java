@@ -0,0 +1,57 @@
+package com.samos.core.json;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+/**
+ * Optimisation de la sérialisation Jackson des modèles générés.
+ * <ul>
+ * <li>le module Blackbird remplace l'accès par réflexion aux getters / setters des
+ * modèles par des accesseurs générés (LambdaMetafactory) ; Spring Boot l'enregistre sur
+ * son {@link ObjectMapper}, et donc sur les convertisseurs JSON et Smile ;</li>
+ * <li>avant le démarrage du serveur web, les sérialiseurs et désérialiseurs des modèles
+ * des packages {@code samos.jackson.warm-up-packages} (défaut : modèles Spring générés)
+ * sont résolus sur chaque mapper de l'application : les beans {@link ObjectMapper} et
+ * les mappers des convertisseurs HTTP Jackson (dont le convertisseur Smile de
+ * {@link com.samos.core.http.BinaryContentConfiguration}), cf {@link JacksonWarmUp}.</li>
+ * </ul>
+ */
+@Configuration
+public class JacksonConfiguration {
+
+	@Bean
+	public Module blackbirdModule() {
+		return new BlackbirdModule();
+	}
+
+	@Bean
+	public JacksonWarmUp jacksonWarmUp(ObjectProvider<ObjectMapper> objectMappers,
+			ObjectProvider<AbstractJackson2HttpMessageConverter> converters,
+			ApplicationContext applicationContext) {
+		// Un même mapper peut être partagé par plusieurs convertisseurs
+		final Set<ObjectMapper> mappers = Collections.newSetFromMap(new IdentityHashMap<>());
+		Stream.concat(objectMappers.orderedStream(),
+				converters.orderedStream().map(AbstractJackson2HttpMessageConverter::getObjectMapper))
+				.forEach(mappers::add);
+
+		final List<String> packages = List.of(applicationContext.getEnvironment()
+				.getProperty("samos.jackson.warm-up-packages", String[].class,
+						new String[] { "com.samos.core.spring.model" }));
+		return new JacksonWarmUp(List.copyOf(mappers), packages,
+				applicationContext.getClassLoader());
+	}
+
+}
@@ -0,0 +1,104 @@
+package com.samos.core.json;
+
+import java.util.List;
+
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.util.ClassUtils;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Résolution à l'avance des sérialiseurs et désérialiseurs Jackson des modèles, et des
+ * listes de ces modèles, sur chaque {@link ObjectMapper} de l'application (JSON, Smile).
+ * <p>
+ * Les sérialiseurs résolus sont conservés dans le cache de chaque mapper : les premières
+ * requêtes n'ont plus à les construire. La résolution est faite au démarrage du contexte,
+ * dans une phase qui précède le démarrage du serveur web : aucune requête n'est reçue
+ * avant qu'elle soit terminée.
+ */
+@Slf4j
+public class JacksonWarmUp implements SmartLifecycle {
+
+	/**
+	 * {@code SMART_LIFECYCLE_PHASE - 2048} : avant le démarrage du serveur web (phase
+	 * {@code SMART_LIFECYCLE_PHASE - 1024}).
+	 */
+	public static final int PHASE = WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE
+			- 2048;
+
+	private final List<ObjectMapper> objectMappers;
+	private final List<String> packages;
+	private final ClassLoader classLoader;
+	private volatile boolean running;
+
+	/**
+	 * Constructeur.
+	 *
+	 * @param objectMappers les mappers à préparer
+	 * @param packages les packages des modèles
+	 * @param classLoader le class loader des modèles
+	 */
+	public JacksonWarmUp(List<ObjectMapper> objectMappers, List<String> packages,
+			ClassLoader classLoader) {
+		this.objectMappers = objectMappers;
+		this.packages = packages;
+		this.classLoader = classLoader;
+	}
+
+	@Override
+	public void start() {
+		// Tous les types des packages sont retenus, pas seulement les composants Spring
+		final ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(
+				false);
+		scanner.addIncludeFilter((metadataReader, metadataReaderFactory) -> true);
+
+		final long start = System.nanoTime();
+		final List<Class<?>> types = packages.stream() //
+				.flatMap(basePackage -> scanner.findCandidateComponents(basePackage).stream()) //
+				.<Class<?>> map(definition -> ClassUtils
+						.resolveClassName(definition.getBeanClassName(), classLoader)) //
+				.toList();
+		objectMappers.forEach(objectMapper -> types.forEach(type -> warmUp(objectMapper, type)));
+		running = true;
+
+		log.info("Sérialiseurs Jackson de {} types préparés sur {} mappers en {} ms",
+				types.size(), objectMappers.size(), (System.nanoTime() - start) / 1_000_000);
+	}
+
+	/**
+	 * Résout les sérialiseurs et désérialiseurs d'un type et des listes de ce type : les
+	 * writers et readers construits pour un type résolvent leur sérialiseur racine, conservé
+	 * dans le cache du mapper (un échec de résolution est ignoré, le sérialiseur étant
+	 * alors résolu à l'usage).
+	 */
+	private static void warmUp(ObjectMapper objectMapper, Class<?> type) {
+		final JavaType javaType = objectMapper.constructType(type);
+		final JavaType listType = objectMapper.getTypeFactory()
+				.constructCollectionType(List.class, type);
+		objectMapper.writerFor(javaType);
+		objectMapper.writerFor(listType);
+		objectMapper.readerFor(javaType);
+		objectMapper.readerFor(listType);
+	}
+
+	@Override
+	public void stop() {
+		running = false;
+	}
+
+	@Override
+	public boolean isRunning() {
+		return running;
+	}
+
+	@Override
+	public int getPhase() {
+		return PHASE;
+	}
+
+}
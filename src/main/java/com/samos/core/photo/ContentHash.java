@@ -0,0 +1,34 @@
+package com.samos.core.photo;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import com.samos.core.exception.TechnicalError;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Empreinte des contenus des photos, utilisée pour ne stocker qu'une fois les contenus
+ * identiques (cf {@link PhotoContents}).
+ */
+@UtilityClass
+public class ContentHash {
+
+	private static final String ALGORITHM = "SHA-256";
+
+	/**
+	 * @param content le contenu
+	 * @return l'empreinte SHA-256 du contenu, en hexadécimal minuscule (64 caractères)
+	 */
+	public static String sha256(byte[] content) {
+		try {
+			return HexFormat.of().formatHex(MessageDigest.getInstance(ALGORITHM).digest(content));
+		}
+		catch (final NoSuchAlgorithmException e) {
+			// Algorithme obligatoire de toute JVM
+			throw new TechnicalError(e, "Algorithme {} indisponible", ALGORITHM);
+		}
+	}
+
+}
@@ -0,0 +1,67 @@
+package com.samos.core.photo;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Stockage en mémoire des contenus des photos ({@code samos.photo-contents.store=memory}).
+ * <p>
+ * Les compteurs de références sont propres à l'instance et perdus au redémarrage : à
+ * réserver à une instance unique sans données persistantes (développement, test de
+ * charge), cf {@link JdbcPhotoContentStore}.
+ */
+public class InMemoryPhotoContentStore implements PhotoContentStore {
+
+	/** Nombre de références d'un contenu réservé pour suppression. */
+	private static final int DELETING = -1;
+
+	private final ConcurrentMap<String, PhotoContent> contents = new ConcurrentHashMap<>();
+
+	@Override
+	public Optional<PhotoContent> find(String hash) {
+		return Optional.ofNullable(contents.get(hash));
+	}
+
+	@Override
+	public boolean insert(PhotoContent content) {
+		return contents.putIfAbsent(content.getHash(), content) == null;
+	}
+
+	@Override
+	public boolean addReference(String hash) {
+		final AtomicBoolean added = new AtomicBoolean();
+		contents.computeIfPresent(hash, (key, content) -> {
+			if (content.getReferences() > 0) {
+				content.setReferences(content.getReferences() + 1);
+				added.set(true);
+			}
+			return content;
+		});
+		return added.get();
+	}
+
+	@Override
+	public boolean removeReference(String hash) {
+		final AtomicBoolean deleting = new AtomicBoolean();
+		contents.computeIfPresent(hash, (key, content) -> {
+			if (content.getReferences() > 0) {
+				content.setReferences(content.getReferences() - 1);
+				if (content.getReferences() == 0) {
+					content.setReferences(DELETING);
+					deleting.set(true);
+				}
+			}
+			return content;
+		});
+		return deleting.get();
+	}
+
+	@Override
+	public void delete(String hash) {
+		contents.computeIfPresent(hash,
+				(key, content) -> content.getReferences() == DELETING ? null : content);
+	}
+
+}
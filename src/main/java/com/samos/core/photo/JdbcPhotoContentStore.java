@@ -0,0 +1,116 @@
+package com.samos.core.photo;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Optional;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Stockage des contenus des photos en base de données (stockage par défaut,
+ * {@code samos.photo-contents.store=jdbc}), dans la table suivante :
+ *
+ * <pre>
+ * create table photo_content (
+ *     hash char(64) not null primary key,
+ *     size bigint not null,
+ *     cloudinary_id varchar(255),
+ *     original_url varchar(1024),
+ *     large_url varchar(1024),
+ *     medium_url varchar(1024),
+ *     small_url varchar(1024),
+ *     thumbnail_url varchar(1024),
+ *     reference_count integer not null
+ * );
+ * </pre>
+ * <p>
+ * Les compteurs sont modifiés par des {@code update} atomiques et la décision de
+ * suppression repose sur le nombre de lignes modifiées : un contenu n'est supprimé que
+ * par une seule instance, et seulement quand sa dernière référence est retirée. Un
+ * {@code reference_count} à -1 marque un contenu en cours de suppression.
+ */
+public class JdbcPhotoContentStore implements PhotoContentStore {
+
+	private static final int DELETING = -1;
+
+	private final JdbcTemplate jdbcTemplate;
+
+	public JdbcPhotoContentStore(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	@Override
+	public Optional<PhotoContent> find(String hash) {
+		return jdbcTemplate.query("select * from photo_content where hash = ?",
+				(rs, rowNum) -> map(rs), hash).stream().findFirst();
+	}
+
+	@Override
+	public boolean insert(PhotoContent content) {
+		try {
+			jdbcTemplate.update(
+					"insert into photo_content (hash, size, cloudinary_id, original_url, large_url,"
+							+ " medium_url, small_url, thumbnail_url, reference_count)"
+							+ " values (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+					content.getHash(), content.getSize(), content.getCloudinaryId(),
+					content.getOriginalUrl(), content.getLargeUrl(), content.getMediumUrl(),
+					content.getSmallUrl(), content.getThumbnailUrl(), content.getReferences());
+			return true;
+		}
+		catch (final DuplicateKeyException e) {
+			// Contenu enregistré entre temps par une autre instance
+			return false;
+		}
+	}
+
+	@Override
+	public boolean addReference(String hash) {
+		return jdbcTemplate.update("update photo_content set reference_count = reference_count + 1"
+				+ " where hash = ? and reference_count > 0", hash) == 1;
+	}
+
+	@Override
+	public boolean removeReference(String hash) {
+		while (true) {
+			// Dernière référence : une seule instance réserve la suppression
+			if (jdbcTemplate.update("update photo_content set reference_count = ?"
+					+ " where hash = ? and reference_count = 1", DELETING, hash) == 1) {
+				return true;
+			}
+			if (jdbcTemplate.update("update photo_content set reference_count = reference_count - 1"
+					+ " where hash = ? and reference_count > 1", hash) == 1) {
+				return false;
+			}
+			// Contenu inconnu ou déjà en cours de suppression, sinon le compteur est passé à 1
+			// entre les deux requêtes : on recommence
+			final Integer references = jdbcTemplate.query(
+					"select reference_count from photo_content where hash = ?",
+					(rs, rowNum) -> rs.getInt(1), hash).stream().findFirst().orElse(null);
+			if (references == null || references <= 0) {
+				return false;
+			}
+		}
+	}
+
+	@Override
+	public void delete(String hash) {
+		jdbcTemplate.update("delete from photo_content where hash = ? and reference_count = ?",
+				hash, DELETING);
+	}
+
+	private static PhotoContent map(ResultSet rs) throws SQLException {
+		final PhotoContent content = new PhotoContent();
+		content.setHash(rs.getString("hash"));
+		content.setSize(rs.getLong("size"));
+		content.setCloudinaryId(rs.getString("cloudinary_id"));
+		content.setOriginalUrl(rs.getString("original_url"));
+		content.setLargeUrl(rs.getString("large_url"));
+		content.setMediumUrl(rs.getString("medium_url"));
+		content.setSmallUrl(rs.getString("small_url"));
+		content.setThumbnailUrl(rs.getString("thumbnail_url"));
+		content.setReferences(rs.getInt("reference_count"));
+		return content;
+	}
+
+}
@@ -0,0 +1,47 @@
+package com.samos.core.photo;
+
+import com.samos.core.spring.model.Photo;
+
+import lombok.Data;
+
+/**
+ * Contenu d'une photo, stocké une seule fois chez l'hébergeur d'images avec ses
+ * déclinaisons et partagé par toutes les photos de même empreinte.
+ */
+@Data
+public class PhotoContent {
+
+	/** L'empreinte SHA-256 du contenu (cf {@link ContentHash}). */
+	private String hash;
+
+	/** La taille du contenu, en octets. */
+	private long size;
+
+	private String cloudinaryId;
+	private String originalUrl;
+	private String largeUrl;
+	private String mediumUrl;
+	private String smallUrl;
+	private String thumbnailUrl;
+
+	/** Le nombre de photos qui référencent le contenu. */
+	private int references;
+
+	/**
+	 * Renseigne l'empreinte, l'identifiant chez l'hébergeur et les urls des déclinaisons
+	 * de la photo.
+	 *
+	 * @param photo la photo
+	 * @return la photo
+	 */
+	public Photo applyTo(Photo photo) {
+		return photo.contentHash(hash)
+				.cloudinaryId(cloudinaryId)
+				.originalUrl(originalUrl)
+				.largeUrl(largeUrl)
+				.mediumUrl(mediumUrl)
+				.smallUrl(smallUrl)
+				.thumbnailUrl(thumbnailUrl);
+	}
+
+}
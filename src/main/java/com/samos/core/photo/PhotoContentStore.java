@@ -0,0 +1,54 @@
+package com.samos.core.photo;
+
+import java.util.Optional;
+
+/**
+ * Stockage des contenus des photos et de leur nombre de références (cf
+ * {@link PhotoContents}).
+ * <p>
+ * Le stockage est partagé par toutes les instances de l'application : les compteurs de
+ * références ne sont modifiés que par des opérations atomiques, jamais par
+ * lecture-modification-écriture.
+ */
+public interface PhotoContentStore {
+
+	/**
+	 * @param hash l'empreinte du contenu
+	 * @return le contenu, s'il est stocké (y compris en cours de suppression)
+	 */
+	Optional<PhotoContent> find(String hash);
+
+	/**
+	 * Enregistre un nouveau contenu, avec son nombre de références initial.
+	 *
+	 * @param content le contenu
+	 * @return {@code false} si un contenu de même empreinte est déjà stocké
+	 */
+	boolean insert(PhotoContent content);
+
+	/**
+	 * Ajoute atomiquement une référence à un contenu stocké.
+	 *
+	 * @param hash l'empreinte du contenu
+	 * @return {@code false} si le contenu n'est pas stocké ou est en cours de suppression
+	 */
+	boolean addReference(String hash);
+
+	/**
+	 * Retire atomiquement une référence à un contenu. Quand il n'est plus référencé, le
+	 * contenu est réservé pour suppression par un seul appelant : il n'accepte plus de
+	 * nouvelle référence jusqu'à son {@link #delete(String)}.
+	 *
+	 * @param hash l'empreinte du contenu
+	 * @return {@code true} si l'appelant doit supprimer le contenu
+	 */
+	boolean removeReference(String hash);
+
+	/**
+	 * Supprime un contenu réservé pour suppression (cf {@link #removeReference(String)}).
+	 *
+	 * @param hash l'empreinte du contenu
+	 */
+	void delete(String hash);
+
+}
@@ -0,0 +1,198 @@
+package com.samos.core.photo;
+
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import com.samos.core.exception.RetriableError;
+import com.samos.core.exception.TechnicalError;
+import com.samos.core.exception.basic.InvalidFormatError;
+import com.samos.core.spring.model.PhotoIn;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Déduplication des contenus des photos à l'enregistrement.
+ * <p>
+ * Les contenus identiques (même empreinte SHA-256) ne sont envoyés à l'hébergeur
+ * d'images et déclinés qu'une fois : les photos suivantes référencent le contenu déjà
+ * stocké. Le contenu n'est supprimé chez l'hébergeur qu'à la suppression de la
+ * dernière photo qui le référence ; un nouvel envoi du même contenu pendant sa
+ * suppression est refusé par une erreur rejouable, vérifiée avant et après l'envoi.
+ * <p>
+ * Les métriques {@code photos.contents} (tag {@code result} : {@code stored} ou
+ * {@code deduplicated}) et {@code photos.contents.bytes.saved} mesurent le gain.
+ *
+ * <pre>
+ * <code class='java'>
+ * // createUpdatePhoto : nouveau contenu puis libération de l'ancien
+ * final PhotoContent content = photoContents.acquire(photoIn, cloudinaryService::upload);
+ * if (previousHash != null) {
+ *     photoContents.release(previousHash, cloudinaryService::destroy);
+ * }
+ * return content.applyTo(photoMapper.map(saved));
+ * </code>
+ * </pre>
+ */
+@Slf4j
+public class PhotoContents {
+
+	/** Code de l'erreur levée quand le contenu envoyé est en cours de suppression. */
+	public static final TechnicalError.ErrorCode CONTENT_DELETING = () -> "PHOTO_CONTENT_DELETING";
+
+	private static final Duration RETRY_AFTER = Duration.ofSeconds(1);
+
+	private static final String METRIC_NAME = "photos.contents";
+
+	/** Verrous par empreinte, répartis sur un nombre fixe de verrous. */
+	private static final int LOCK_STRIPES = 64;
+
+	private final PhotoContentStore store;
+	private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+	private final Counter stored;
+	private final Counter deduplicated;
+	private final Counter bytesSaved;
+
+	public PhotoContents(PhotoContentStore store, MeterRegistry meterRegistry) {
+		this.store = store;
+		for (int i = 0; i < LOCK_STRIPES; i++) {
+			locks[i] = new ReentrantLock();
+		}
+		this.stored = Counter.builder(METRIC_NAME) //
+				.tag("result", "stored") //
+				.register(meterRegistry);
+		this.deduplicated = Counter.builder(METRIC_NAME) //
+				.tag("result", "deduplicated") //
+				.register(meterRegistry);
+		this.bytesSaved = Counter.builder(METRIC_NAME + ".bytes.saved") //
+				.description("Octets non stockés ni envoyés grâce à la déduplication") //
+				.baseUnit("bytes") //
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Ajoute une référence au contenu de la photo : le contenu est envoyé à l'hébergeur
+	 * s'il n'est pas déjà stocké.
+	 * <p>
+	 * L'empreinte est toujours calculée à partir du contenu reçu : un appelant ne peut
+	 * pas référencer un contenu qu'il ne possède pas.
+	 *
+	 * @param photoIn la photo, avec son {@code blob}
+	 * @param uploader l'envoi à l'hébergeur d'images d'un nouveau contenu
+	 * @return le contenu stocké
+	 * @throws InvalidFormatError si la photo n'a pas de contenu
+	 * @throws RetriableError si le même contenu est en cours de suppression
+	 */
+	public PhotoContent acquire(PhotoIn photoIn, PhotoUploader uploader) {
+		final byte[] blob = photoIn.getBlob();
+		if (blob == null || blob.length == 0) {
+			throw new InvalidFormatError("La photo {} n'a pas de contenu", photoIn.getId());
+		}
+		final String hash = ContentHash.sha256(blob);
+
+		// Verrou par empreinte : deux envois simultanés du même contenu par l'instance ne
+		// sont envoyés qu'une fois (entre instances, cf PhotoUploader)
+		final ReentrantLock lock = lock(hash);
+		lock.lock();
+		try {
+			final PhotoContent existing = reference(hash);
+			if (existing != null) {
+				return existing;
+			}
+			// L'identifiant chez l'hébergeur dérive de l'empreinte : un envoi pendant la
+			// suppression du même contenu serait supprimé avec lui
+			checkNotDeleting(hash);
+
+			final PhotoContent content = uploader.upload(hash, blob);
+			// Suppression réservée par une autre instance pendant l'envoi
+			checkNotDeleting(hash);
+			content.setHash(hash);
+			content.setSize(blob.length);
+			content.setReferences(1);
+			if (store.insert(content)) {
+				stored.increment();
+				return content;
+			}
+
+			// Enregistré entre temps par une autre instance, à partir du même contenu
+			final PhotoContent concurrent = reference(hash);
+			if (concurrent != null) {
+				return concurrent;
+			}
+			throw deleting(hash);
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Retire une référence au contenu : le contenu est supprimé chez l'hébergeur quand
+	 * plus aucune photo ne le référence.
+	 *
+	 * @param hash l'empreinte du contenu
+	 * @param destroyer la suppression chez l'hébergeur d'images
+	 */
+	public void release(String hash, Consumer<PhotoContent> destroyer) {
+		// Même verrou que acquire : un envoi du même contenu par l'instance attend la fin
+		// de la suppression au lieu d'être supprimé avec lui
+		final ReentrantLock lock = lock(hash);
+		lock.lock();
+		try {
+			if (!store.removeReference(hash)) {
+				return;
+			}
+			final PhotoContent content = store.find(hash).orElse(null);
+			try {
+				if (content != null) {
+					destroyer.accept(content);
+					log.debug("Contenu {} supprimé, plus référencé", hash);
+				}
+			}
+			finally {
+				// Même en cas d'échec chez l'hébergeur, pour ne pas bloquer un nouvel envoi
+				store.delete(hash);
+			}
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return le contenu stocké auquel une référence a été ajoutée, {@code null} s'il
+	 *     n'est pas stocké
+	 */
+	private PhotoContent reference(String hash) {
+		if (!store.addReference(hash)) {
+			return null;
+		}
+		// Toujours présent tant que la référence ajoutée n'est pas retirée
+		final PhotoContent existing = store.find(hash)
+				.orElseThrow(() -> new TechnicalError("Le contenu {} a disparu", hash));
+		deduplicated.increment();
+		bytesSaved.increment(existing.getSize());
+		return existing;
+	}
+
+	/**
+	 * @throws RetriableError si le contenu est réservé pour suppression
+	 */
+	private void checkNotDeleting(String hash) {
+		if (store.find(hash).filter(content -> content.getReferences() <= 0).isPresent()) {
+			throw deleting(hash);
+		}
+	}
+
+	private static RetriableError deleting(String hash) {
+		return new RetriableError(CONTENT_DELETING, RETRY_AFTER,
+				"Le contenu {} est en cours de suppression", hash);
+	}
+
+	private ReentrantLock lock(String hash) {
+		return locks[Math.floorMod(hash.hashCode(), LOCK_STRIPES)];
+	}
+
+}
@@ -0,0 +1,48 @@
+package com.samos.core.photo;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+
+/**
+ * Mise en place de la déduplication des contenus des photos (cf {@link PhotoContents}).
+ * <p>
+ * Stockage : {@code samos.photo-contents.store} = {@code jdbc} (défaut, table
+ * {@code photo_content}, cf {@link JdbcPhotoContentStore}) ou {@code memory} (instance
+ * unique sans données persistantes seulement, cf {@link InMemoryPhotoContentStore}).
+ * Sans base de données ni stockage explicite, la déduplication ne démarre pas : des
+ * compteurs de références propres à chaque instance feraient supprimer chez l'hébergeur
+ * des contenus encore utilisés. Un bean {@link PhotoContentStore} de l'application reste
+ * prioritaire.
+ */
+@Configuration
+public class PhotoContentsConfiguration {
+
+	@Bean
+	@ConditionalOnMissingBean(PhotoContentStore.class)
+	@ConditionalOnProperty(prefix = "samos.photo-contents", name = "store", havingValue = "jdbc",
+			matchIfMissing = true)
+	public PhotoContentStore jdbcPhotoContentStore(JdbcTemplate jdbcTemplate) {
+		return new JdbcPhotoContentStore(jdbcTemplate);
+	}
+
+	@Bean
+	@ConditionalOnMissingBean(PhotoContentStore.class)
+	@ConditionalOnProperty(prefix = "samos.photo-contents", name = "store", havingValue = "memory")
+	public PhotoContentStore inMemoryPhotoContentStore() {
+		return new InMemoryPhotoContentStore();
+	}
+
+	@Bean
+	public PhotoContents photoContents(PhotoContentStore store,
+			ObjectProvider<MeterRegistry> meterRegistry) {
+		return new PhotoContents(store, meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+	}
+
+}
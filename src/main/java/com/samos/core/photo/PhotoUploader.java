@@ -0,0 +1,21 @@
+package com.samos.core.photo;
+
+/**
+ * Envoi d'un nouveau contenu de photo à l'hébergeur d'images et production de ses
+ * déclinaisons.
+ * <p>
+ * Deux instances peuvent envoyer simultanément le même contenu : l'envoi doit être
+ * idempotent pour une même empreinte (identifiant chez l'hébergeur dérivé de
+ * l'empreinte, écrasement autorisé), seul le premier enregistré étant conservé.
+ */
+@FunctionalInterface
+public interface PhotoUploader {
+
+	/**
+	 * @param hash l'empreinte du contenu, à utiliser comme identifiant chez l'hébergeur
+	 * @param blob le contenu
+	 * @return le contenu stocké : identifiant chez l'hébergeur et urls des déclinaisons
+	 */
+	PhotoContent upload(String hash, byte[] blob);
+
+}
@@ -0,0 +1,28 @@
+package com.samos.core.render;
+
+/**
+ * Rendu page par page des éléments d'un travail d'impression (ex: les fiches des
+ * territoires d'un export), cf {@link ParallelRenderer}.
+ *
+ * @param <T> le type des éléments
+ */
+public interface PageRenderer<T> {
+
+	/**
+	 * Mise en page de l'élément, exécutée dans l'ordre des éléments : doit être rapide.
+	 *
+	 * @param item l'élément
+	 * @return le nombre de pages de l'élément
+	 */
+	int pages(T item);
+
+	/**
+	 * Rendu d'une page, exécuté en parallèle des autres pages.
+	 *
+	 * @param item l'élément
+	 * @param page l'index de la page dans l'élément (à partir de 0)
+	 * @return la page rendue
+	 */
+	byte[] render(T item, int page);
+
+}
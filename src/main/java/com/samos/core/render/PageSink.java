@@ -0,0 +1,18 @@
+package com.samos.core.render;
+
+import java.io.IOException;
+
+/**
+ * Assemblage des pages rendues par le {@link ParallelRenderer}, reçues une à une dans
+ * l'ordre du travail d'impression.
+ */
+@FunctionalInterface
+public interface PageSink {
+
+	/**
+	 * @param page la page rendue
+	 * @throws IOException en cas d'erreur d'écriture
+	 */
+	void write(byte[] page) throws IOException;
+
+}
@@ -0,0 +1,157 @@
+package com.samos.core.render;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import com.samos.core.exception.FunctionalError;
+import com.samos.core.exception.TechnicalError;
+import com.samos.core.timing.Phase;
+import com.samos.core.timing.RequestTimings;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+
+/**
+ * Rendu parallèle des travaux d'impression, page par page.
+ * <p>
+ * Chaque page de chaque élément (ex: chaque face de chaque fiche de territoire) est
+ * rendue sur un pool à vol de tâches ("work-stealing", {@link ForkJoinPool}) dimensionné
+ * sur le nombre de coeurs et partagé par tous les travaux. Les pages sont transmises au
+ * {@link PageSink} dans l'ordre du travail dès que la page suivante est prête.
+ * <p>
+ * La mémoire est bornée : au plus {@code maxPagesInFlight} pages d'un travail sont en
+ * cours de rendu ou rendues en attente d'assemblage. Le nombre de travaux simultanés
+ * est lui borné par le bulkhead des exports (cf
+ * {@link com.samos.core.concurrent.BulkheadConfiguration}).
+ *
+ * <pre>
+ * <code class='java'>
+ * parallelRenderer.render(territories, new PageRenderer&lt;&gt;() {
+ *
+ *     public int pages(TerritoryBeanResource territory) {
+ *         return territory.getBack().isEmpty() ? 1 : 2;
+ *     }
+ *
+ *     public byte[] render(TerritoryBeanResource territory, int page) {
+ *         return page == 0 ? cardRenderer.front(territory) : cardRenderer.back(territory);
+ *     }
+ * }, pdfMerger::addPage);
+ * </code>
+ * </pre>
+ */
+public class ParallelRenderer {
+
+	@Getter
+	private final int parallelism;
+	@Getter
+	private final int maxPagesInFlight;
+	private final ForkJoinPool pool;
+	private final Timer jobs;
+	private final Counter pages;
+
+	/**
+	 * Constructeur.
+	 *
+	 * @param name le nom du moteur de rendu, utilisé comme tag des métriques
+	 * @param parallelism le nombre de threads de rendu
+	 * @param maxPagesInFlight le nombre maximum de pages d'un travail en mémoire
+	 * @param meterRegistry le registre des métriques
+	 */
+	public ParallelRenderer(String name, int parallelism, int maxPagesInFlight,
+			MeterRegistry meterRegistry) {
+		this.parallelism = parallelism;
+		this.maxPagesInFlight = maxPagesInFlight;
+		// asyncMode : les tâches soumises de l'extérieur sont traitées dans l'ordre (FIFO)
+		this.pool = new ForkJoinPool(parallelism, pool -> {
+			final var thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+			thread.setName("render-" + name + "-" + thread.getPoolIndex());
+			return thread;
+		}, null, true);
+		this.jobs = Timer.builder("render.jobs").tag("name", name).register(meterRegistry);
+		this.pages = Counter.builder("render.pages").tag("name", name).register(meterRegistry);
+	}
+
+	/**
+	 * Rend les pages des éléments en parallèle et les transmet dans l'ordre.
+	 *
+	 * @param items les éléments du travail d'impression, dans l'ordre
+	 * @param renderer la mise en page et le rendu des pages
+	 * @param sink l'assemblage des pages
+	 * @return le nombre de pages rendues
+	 */
+	public <T> int render(List<T> items, PageRenderer<T> renderer, PageSink sink) {
+		final long start = System.nanoTime();
+		final Deque<CompletableFuture<byte[]>> window = new ArrayDeque<>(maxPagesInFlight);
+		int count = 0;
+		try (RequestTimings.Split split = RequestTimings.start(Phase.RENDERING)) {
+			for (final T item : items) {
+				final int itemPages = renderer.pages(item);
+				for (int page = 0; page < itemPages; page++) {
+					// Fenêtre pleine : on attend la plus ancienne page pour l'assembler
+					if (window.size() >= maxPagesInFlight) {
+						write(window.poll(), sink);
+					}
+					final int index = page;
+					window.add(CompletableFuture.supplyAsync(() -> renderer.render(item, index), pool));
+					count++;
+					writeCompleted(window, sink);
+				}
+			}
+			while (!window.isEmpty()) {
+				write(window.poll(), sink);
+			}
+			return count;
+		}
+		catch (final RuntimeException e) {
+			window.forEach(future -> future.cancel(false));
+			throw e;
+		}
+		finally {
+			jobs.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			pages.increment(count);
+		}
+	}
+
+	/**
+	 * Arrête le pool de rendu.
+	 */
+	public void shutdown() {
+		pool.shutdown();
+	}
+
+	private static void writeCompleted(Deque<CompletableFuture<byte[]>> window, PageSink sink) {
+		while (!window.isEmpty() && window.peek().isDone()) {
+			write(window.poll(), sink);
+		}
+	}
+
+	private static void write(CompletableFuture<byte[]> future, PageSink sink) {
+		final byte[] page;
+		try {
+			page = future.join();
+		}
+		catch (final CompletionException | CancellationException e) {
+			final Throwable cause = e.getCause() == null ? e : e.getCause();
+			if (cause instanceof FunctionalError || cause instanceof TechnicalError) {
+				throw (RuntimeException) cause;
+			}
+			throw new TechnicalError(cause, "Erreur de rendu d'une page");
+		}
+		try {
+			sink.write(page);
+		}
+		catch (final IOException e) {
+			throw new TechnicalError(e, "Erreur d'assemblage d'une page");
+		}
+	}
+
+}
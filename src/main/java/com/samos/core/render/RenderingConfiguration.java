@@ -0,0 +1,35 @@
+package com.samos.core.render;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+
+/**
+ * Mise en place du rendu parallèle des exports (cf {@link ParallelRenderer}).
+ * <ul>
+ * <li>nombre de threads de rendu : {@code samos.rendering.parallelism} (défaut : nombre
+ * de coeurs) ;</li>
+ * <li>nombre maximum de pages d'un export en mémoire :
+ * {@code samos.rendering.max-pages-in-flight} (défaut : 4 par thread de rendu).</li>
+ * </ul>
+ */
+@Configuration
+public class RenderingConfiguration {
+
+	@Bean(destroyMethod = "shutdown")
+	public ParallelRenderer exportRenderer(
+			@Value("${samos.rendering.parallelism:0}") int parallelism,
+			@Value("${samos.rendering.max-pages-in-flight:0}") int maxPagesInFlight,
+			ObjectProvider<MeterRegistry> meterRegistry) {
+		final int threads = parallelism > 0 ? parallelism
+				: Runtime.getRuntime().availableProcessors();
+		return new ParallelRenderer("export", threads,
+				maxPagesInFlight > 0 ? maxPagesInFlight : 4 * threads,
+				meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+	}
+
+}
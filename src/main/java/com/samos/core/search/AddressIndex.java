@@ -0,0 +1,436 @@
+package com.samos.core.search;
+
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import com.samos.core.spring.model.AddressMatch;
+import com.samos.core.spring.model.TerritoryAddress;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Index inversé en mémoire des adresses des territoires, par assemblée.
+ * <p>
+ * Les noms des adresses sont découpés en mots normalisés (sans accents ni casse) ;
+ * chaque mot de la recherche est un préfixe d'un mot de l'adresse. Pour une même
+ * adresse rattachée à plusieurs territoires au fil du temps, seul le rattachement de
+ * date la plus récente est retourné.
+ * <p>
+ * L'index d'une assemblée est chargé à la première recherche, une seule fois pour les
+ * recherches simultanées, puis tenu à jour par les écritures d'adresses ({@link #put},
+ * {@link #remove}). Les écritures reçues pendant le chargement sont rejouées après lui :
+ * elles ne sont pas écrasées par des adresses lues avant elles.
+ *
+ * <pre>
+ * <code class='java'>
+ * final AddressIndex addressIndex = new AddressIndex(territoryAddressService::findByGroup);
+ *
+ * // Recherche (searchGroupAddresses)
+ * return ResponseEntity.ok(addressIndex.search(id, q, limit));
+ *
+ * // Écriture d'une adresse
+ * addressIndex.put(groupId, territoryAddressMapper.map(saved));
+ * </code>
+ * </pre>
+ */
+@Slf4j
+public class AddressIndex {
+
+	private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+	private static final Pattern SEPARATORS = Pattern.compile("[^\\p{Alnum}]+");
+
+	private static final Comparator<Entry> BY_NAME = Comparator
+			.comparing((Entry entry) -> entry.normalizedName)
+			.thenComparing(entry -> entry.id);
+
+	private final Function<Integer, Collection<TerritoryAddress>> loader;
+	private final ConcurrentMap<Integer, GroupIndex> groups = new ConcurrentHashMap<>();
+
+	/**
+	 * Constructeur.
+	 *
+	 * @param loader le chargement des adresses des territoires d'une assemblée, par id
+	 *     d'assemblée
+	 */
+	public AddressIndex(Function<Integer, Collection<TerritoryAddress>> loader) {
+		this.loader = loader;
+	}
+
+	/**
+	 * Recherche les adresses de l'assemblée dont chaque mot de la recherche préfixe un
+	 * mot du nom.
+	 *
+	 * @param groupId l'id de l'assemblée
+	 * @param query le texte recherché
+	 * @param limit le nombre maximum de résultats
+	 * @return les adresses trouvées, triées par nom
+	 */
+	public List<AddressMatch> search(Integer groupId, String query, int limit) {
+		final Set<String> tokens = tokens(query);
+		if (tokens.isEmpty() || limit <= 0) {
+			return List.of();
+		}
+		return group(groupId).search(tokens, limit);
+	}
+
+	/**
+	 * Ajoute ou remplace une adresse dans l'index de l'assemblée, si celui-ci est
+	 * chargé.
+	 *
+	 * @param groupId l'id de l'assemblée
+	 * @param territoryAddress l'adresse du territoire
+	 */
+	public void put(Integer groupId, TerritoryAddress territoryAddress) {
+		final GroupIndex index = groups.get(groupId);
+		if (index != null) {
+			index.put(territoryAddress);
+		}
+	}
+
+	/**
+	 * Retire une adresse de l'index de l'assemblée, si celui-ci est chargé.
+	 *
+	 * @param groupId l'id de l'assemblée
+	 * @param territoryAddressId l'id de l'adresse du territoire
+	 */
+	public void remove(Integer groupId, Integer territoryAddressId) {
+		final GroupIndex index = groups.get(groupId);
+		if (index != null) {
+			index.remove(territoryAddressId);
+		}
+	}
+
+	/**
+	 * Oublie l'index de l'assemblée : il sera rechargé à la prochaine recherche.
+	 *
+	 * @param groupId l'id de l'assemblée
+	 */
+	public void evict(Integer groupId) {
+		groups.remove(groupId);
+	}
+
+	/**
+	 * @param groupId l'id de l'assemblée
+	 * @return le nombre d'adresses indexées pour l'assemblée (0 si l'index n'est pas
+	 *     chargé)
+	 */
+	public int size(Integer groupId) {
+		final GroupIndex index = groups.get(groupId);
+		return index == null ? 0 : index.size();
+	}
+
+	/**
+	 * Découpe un texte en mots normalisés : sans accents, en minuscules, séparés par
+	 * tout caractère non alphanumérique.
+	 *
+	 * @param text le texte
+	 * @return les mots normalisés, dans l'ordre du texte
+	 */
+	static Set<String> tokens(String text) {
+		final Set<String> tokens = new LinkedHashSet<>();
+		if (text != null) {
+			for (final String token : SEPARATORS.split(normalize(text))) {
+				if (!token.isEmpty()) {
+					tokens.add(token);
+				}
+			}
+		}
+		return tokens;
+	}
+
+	private static String normalize(String text) {
+		return DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+				.replaceAll("")
+				.toLowerCase(Locale.ROOT);
+	}
+
+	private GroupIndex group(Integer groupId) {
+		GroupIndex index = groups.get(groupId);
+		if (index == null) {
+			// Chargement hors de computeIfAbsent, qui bloquerait les autres assemblées de
+			// la même partie de la map : les recherches concurrentes attendent l'index créé
+			final GroupIndex created = new GroupIndex();
+			index = groups.putIfAbsent(groupId, created);
+			if (index == null) {
+				index = created;
+				load(groupId, created);
+			}
+		}
+		return index.awaitLoaded();
+	}
+
+	private void load(Integer groupId, GroupIndex index) {
+		try {
+			final Collection<TerritoryAddress> territoryAddresses = loader.apply(groupId);
+			index.loaded(territoryAddresses);
+			log.info("Index des adresses de l'assemblée {} chargé : {} adresses", groupId,
+					index.size());
+		}
+		catch (final RuntimeException | Error e) {
+			// Rechargé à la prochaine recherche, les recherches en attente échouent aussi
+			groups.remove(groupId, index);
+			index.failed(e);
+			throw e;
+		}
+	}
+
+	private static final class GroupIndex {
+
+		private final ReadWriteLock lock = new ReentrantReadWriteLock();
+		private final CompletableFuture<GroupIndex> loaded = new CompletableFuture<>();
+		/** Écritures reçues pendant le chargement, {@code null} une fois chargé. */
+		private List<Runnable> pending = new ArrayList<>();
+		private final Map<Integer, Entry> entries = new HashMap<>();
+		private final NavigableMap<String, Set<Integer>> postings = new TreeMap<>();
+
+		/** Les rattachements de chaque adresse, et le plus récent d'entre eux. */
+		private final Map<Integer, Set<Integer>> idsByAddress = new HashMap<>();
+		private final Map<Integer, Entry> latestByAddress = new HashMap<>();
+
+		GroupIndex awaitLoaded() {
+			try {
+				return loaded.join();
+			}
+			catch (final CompletionException e) {
+				if (e.getCause() instanceof Error error) {
+					throw error;
+				}
+				throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException
+						: e;
+			}
+		}
+
+		void loaded(Collection<TerritoryAddress> territoryAddresses) {
+			lock.writeLock().lock();
+			try {
+				territoryAddresses.forEach(this::putEntry);
+				pending.forEach(Runnable::run);
+				pending = null;
+			}
+			finally {
+				lock.writeLock().unlock();
+			}
+			loaded.complete(this);
+		}
+
+		void failed(Throwable e) {
+			loaded.completeExceptionally(e);
+		}
+
+		void put(TerritoryAddress territoryAddress) {
+			lock.writeLock().lock();
+			try {
+				if (pending != null) {
+					pending.add(() -> putEntry(territoryAddress));
+				}
+				else {
+					putEntry(territoryAddress);
+				}
+			}
+			finally {
+				lock.writeLock().unlock();
+			}
+		}
+
+		void remove(Integer id) {
+			lock.writeLock().lock();
+			try {
+				if (pending != null) {
+					pending.add(() -> removeEntry(id));
+				}
+				else {
+					removeEntry(id);
+				}
+			}
+			finally {
+				lock.writeLock().unlock();
+			}
+		}
+
+		private void putEntry(TerritoryAddress territoryAddress) {
+			final Entry entry = Entry.of(territoryAddress);
+			if (entry == null) {
+				return;
+			}
+			removeEntry(entry.id);
+			entries.put(entry.id, entry);
+			for (final String token : entry.tokens) {
+				postings.computeIfAbsent(token, t -> new HashSet<>()).add(entry.id);
+			}
+			idsByAddress.computeIfAbsent(entry.addressKey(), k -> new HashSet<>()).add(entry.id);
+			latestByAddress.merge(entry.addressKey(), entry, Entry::mostRecent);
+		}
+
+		int size() {
+			lock.readLock().lock();
+			try {
+				return entries.size();
+			}
+			finally {
+				lock.readLock().unlock();
+			}
+		}
+
+		List<AddressMatch> search(Set<String> tokens, int limit) {
+			// Les meilleurs résultats (par nom) dans un tas borné à limit
+			final PriorityQueue<Entry> best = new PriorityQueue<>(limit + 1, BY_NAME.reversed());
+			lock.readLock().lock();
+			try {
+				// Candidats du mot le plus sélectif, les autres mots sont vérifiés sur l'entrée
+				String selective = null;
+				int selectiveSize = Integer.MAX_VALUE;
+				for (final String token : tokens) {
+					final int size = prefixed(token).mapToInt(Set::size).sum();
+					if (size < selectiveSize) {
+						selective = token;
+						selectiveSize = size;
+					}
+				}
+				if (selectiveSize == 0) {
+					return List.of();
+				}
+
+				// Une adresse dont plusieurs mots commencent par le préfixe est dans plusieurs
+				// listes : elle n'est candidate qu'une fois
+				final Set<Integer> candidates = new HashSet<>(selectiveSize);
+				prefixed(selective).forEach(candidates::addAll);
+				for (final Integer id : candidates) {
+					final Entry entry = entries.get(id);
+					// Même adresse donc mêmes mots : seul le rattachement le plus récent compte
+					if (latestByAddress.get(entry.addressKey()) == entry
+							&& entry.matches(tokens, selective)) {
+						best.add(entry);
+						if (best.size() > limit) {
+							best.poll();
+						}
+					}
+				}
+			}
+			finally {
+				lock.readLock().unlock();
+			}
+
+			return best.stream().sorted(BY_NAME).map(Entry::toMatch).toList();
+		}
+
+		private Stream<Set<Integer>> prefixed(String prefix) {
+			return postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false)
+					.values()
+					.stream();
+		}
+
+		private void removeEntry(Integer id) {
+			final Entry previous = entries.remove(id);
+			if (previous == null) {
+				return;
+			}
+			for (final String token : previous.tokens) {
+				final Set<Integer> ids = postings.get(token);
+				if (ids != null && ids.remove(id) && ids.isEmpty()) {
+					postings.remove(token);
+				}
+			}
+
+			final Integer addressKey = previous.addressKey();
+			final Set<Integer> ids = idsByAddress.get(addressKey);
+			ids.remove(id);
+			if (ids.isEmpty()) {
+				idsByAddress.remove(addressKey);
+				latestByAddress.remove(addressKey);
+			}
+			else if (latestByAddress.get(addressKey) == previous) {
+				latestByAddress.put(addressKey,
+						ids.stream().map(entries::get).reduce(Entry::mostRecent).orElseThrow());
+			}
+		}
+
+	}
+
+	private static final class Entry {
+
+		private final Integer id;
+		private final Integer addressId;
+		private final String name;
+		private final String normalizedName;
+		private final Set<String> tokens;
+		private final Integer territoryId;
+		private final Integer zoneId;
+		private final LocalDate date;
+
+		private Entry(TerritoryAddress territoryAddress) {
+			this.id = territoryAddress.getId();
+			this.addressId = territoryAddress.getAddress().getId();
+			this.name = territoryAddress.getAddress().getName();
+			this.normalizedName = normalize(name);
+			this.tokens = tokens(name);
+			this.territoryId = territoryAddress.getTerritory() == null ? null
+					: territoryAddress.getTerritory().getId();
+			this.zoneId = territoryAddress.getZone() == null ? null
+					: territoryAddress.getZone().getId();
+			this.date = territoryAddress.getDate();
+		}
+
+		static Entry of(TerritoryAddress territoryAddress) {
+			if (territoryAddress.getId() == null || territoryAddress.getAddress() == null
+					|| territoryAddress.getAddress().getName() == null) {
+				return null;
+			}
+			return new Entry(territoryAddress);
+		}
+
+		boolean matches(Set<String> queryTokens, String checkedToken) {
+			for (final String queryToken : queryTokens) {
+				if (!queryToken.equals(checkedToken)
+						&& tokens.stream().noneMatch(token -> token.startsWith(queryToken))) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		Integer addressKey() {
+			// Sans adresse partagée, chaque rattachement est une adresse distincte
+			return addressId == null ? -id : addressId;
+		}
+
+		static Entry mostRecent(Entry a, Entry b) {
+			if (a.date == null) {
+				return b;
+			}
+			return b.date != null && b.date.isAfter(a.date) ? b : a;
+		}
+
+		AddressMatch toMatch() {
+			return new AddressMatch().id(id)
+					.addressId(addressId)
+					.name(name)
+					.territoryId(territoryId)
+					.zoneId(zoneId)
+					.date(date);
+		}
+
+	}
+
+}
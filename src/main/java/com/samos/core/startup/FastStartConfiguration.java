@@ -0,0 +1,64 @@
+package com.samos.core.startup;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.util.PatternMatchUtils;
+
+import com.samos.core.feign.ApiClient;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Profil Spring de démarrage rapide ({@code spring.profiles.active=fast-start}, à
+ * combiner avec le profil Maven {@code fast-start} qui produit le traitement AOT et
+ * l'archive AppCDS).
+ * <p>
+ * Les clients Feign et les sous-systèmes d'export ne sont initialisés qu'à leur premier
+ * usage : sont concernés les beans dont le type est un client généré
+ * ({@link ApiClient.Api}) et les beans dont le nom correspond à l'un des motifs
+ * {@code samos.fast-start.lazy-beans} (défaut : {@code *ExportService, *Exporter,
+ * *ApiClient}). Les motifs portent sur la fin du nom, pour ne pas retenir les beans qui
+ * mentionnent seulement un client ou un export (propriétés, configuration...).
+ * <p>
+ * Avec le traitement AOT, les définitions des beans sont figées au build : les beans
+ * différés sont ceux retenus par les motifs et le profil actifs au build.
+ */
+@Slf4j
+@Configuration
+@Profile("fast-start")
+public class FastStartConfiguration {
+
+	private static final String[] DEFAULT_LAZY_BEANS = { "*ExportService", "*Exporter",
+			"*ApiClient" };
+
+	@Bean
+	public static BeanFactoryPostProcessor lazyBeansPostProcessor(Environment environment) {
+		final String[] patterns = environment.getProperty("samos.fast-start.lazy-beans",
+				String[].class, DEFAULT_LAZY_BEANS);
+
+		return beanFactory -> {
+			int count = 0;
+			for (final String name : beanFactory.getBeanDefinitionNames()) {
+				final BeanDefinition definition = beanFactory.getBeanDefinition(name);
+				if (definition.isLazyInit()
+						|| definition.getRole() != BeanDefinition.ROLE_APPLICATION) {
+					continue;
+				}
+
+				// On ne déclenche pas l'initialisation des FactoryBean pour connaitre le type
+				final Class<?> type = beanFactory.getType(name, false);
+				if (PatternMatchUtils.simpleMatch(patterns, name)
+						|| type != null && ApiClient.Api.class.isAssignableFrom(type)) {
+					definition.setLazyInit(true);
+					count++;
+				}
+			}
+			log.info("Démarrage rapide : {} beans initialisés au premier usage", count);
+		};
+	}
+
+}
@@ -0,0 +1,167 @@
+package com.samos.core.startup;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Mesure du démarrage : délai entre le lancement de la JVM et la fin de la première
+ * requête ("time-to-first-request"), et nombre de classes chargées à ce moment.
+ * <p>
+ * Les valeurs sont tracées et exposées dans les métriques
+ * {@code application.first-request.time} et {@code application.first-request.classes},
+ * pour détecter les régressions du temps de démarrage.
+ * <p>
+ * Les seuils, non vérifiés s'ils sont vides :
+ * <ul>
+ * <li>{@code samos.startup.max-refresh-time} : délai entre le lancement de la JVM et la
+ * fin du rafraichissement du contexte (serveur web démarré) ;</li>
+ * <li>{@code samos.startup.max-first-request-time} : délai jusqu'à la première requête
+ * servie ;</li>
+ * <li>{@code samos.startup.max-loaded-classes} : classes chargées à la fin du
+ * rafraichissement et à la première requête.</li>
+ * </ul>
+ * Un dépassement est tracé en erreur et compté dans la métrique
+ * {@code application.startup.threshold.exceeded}. Avec
+ * {@code samos.startup.fail-on-threshold=true} (démarrage d'entrainement du profil Maven
+ * {@code fast-start}), un dépassement à la fin du rafraichissement fait échouer le
+ * démarrage.
+ */
+@Slf4j
+@Component
+public class StartupReport extends OncePerRequestFilter {
+
+	private static final String PREFIX = "samos.startup.";
+
+	private final ApplicationContext applicationContext;
+	private final Duration maxRefreshTime;
+	private final Duration maxFirstRequestTime;
+	private final Long maxLoadedClasses;
+	private final boolean failOnThreshold;
+	private final Counter thresholdExceeded;
+
+	private final AtomicBoolean firstRequestDone = new AtomicBoolean();
+	private final AtomicLong firstRequestMillis = new AtomicLong(-1);
+	private final AtomicLong firstRequestClasses = new AtomicLong(-1);
+
+	public StartupReport(ApplicationContext applicationContext,
+			ObjectProvider<MeterRegistry> meterRegistry) {
+		this.applicationContext = applicationContext;
+		final Environment environment = applicationContext.getEnvironment();
+		maxRefreshTime = duration(environment, "max-refresh-time");
+		maxFirstRequestTime = duration(environment, "max-first-request-time");
+		final String maxClasses = environment.getProperty(PREFIX + "max-loaded-classes");
+		maxLoadedClasses = StringUtils.hasText(maxClasses) ? Long.valueOf(maxClasses.trim())
+				: null;
+		failOnThreshold = environment.getProperty(PREFIX + "fail-on-threshold", Boolean.class,
+				false);
+
+		final MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+		thresholdExceeded = Counter.builder("application.startup.threshold.exceeded")
+				.register(registry);
+		TimeGauge.builder("application.first-request.time", firstRequestMillis,
+				TimeUnit.MILLISECONDS, AtomicLong::get) //
+				.register(registry);
+		Gauge.builder("application.first-request.classes", firstRequestClasses,
+				AtomicLong::get) //
+				.register(registry);
+	}
+
+	@EventListener
+	public void refreshed(ContextRefreshedEvent event) {
+		// Les contextes enfants (clients Feign...) propagent aussi leur rafraichissement
+		if (event.getApplicationContext() != applicationContext) {
+			return;
+		}
+		final long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+		final long classes = ManagementFactory.getClassLoadingMXBean().getLoadedClassCount();
+		final boolean exceeded = check("fin du rafraichissement", uptime, maxRefreshTime,
+				classes);
+		if (exceeded && failOnThreshold) {
+			throw new IllegalStateException(
+					"Seuils de démarrage dépassés (samos.startup.*), cf traces");
+		}
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void ready() {
+		log.info("Application prête {} ms après le lancement de la JVM, {} classes chargées",
+				ManagementFactory.getRuntimeMXBean().getUptime(),
+				ManagementFactory.getClassLoadingMXBean().getLoadedClassCount());
+	}
+
+	@Override
+	protected void doFilterInternal(@NonNull HttpServletRequest request,
+			@NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
+			throws ServletException, IOException {
+		try {
+			filterChain.doFilter(request, response);
+		}
+		finally {
+			if (!firstRequestDone.get() && firstRequestDone.compareAndSet(false, true)) {
+				firstRequestMillis.set(ManagementFactory.getRuntimeMXBean().getUptime());
+				firstRequestClasses
+						.set(ManagementFactory.getClassLoadingMXBean().getLoadedClassCount());
+				log.info(
+						"Première requête ({}) servie {} ms après le lancement de la JVM, {} classes chargées",
+						request.getRequestURI(), firstRequestMillis.get(),
+						firstRequestClasses.get());
+				check("première requête", firstRequestMillis.get(), maxFirstRequestTime,
+						firstRequestClasses.get());
+			}
+		}
+	}
+
+	/**
+	 * @return {@code true} si un seuil est dépassé
+	 */
+	private boolean check(String step, long uptime, Duration maxTime, long classes) {
+		boolean exceeded = false;
+		if (maxTime != null && uptime > maxTime.toMillis()) {
+			log.error("Démarrage ({}) : {} ms après le lancement de la JVM, seuil {} ms", step,
+					uptime, maxTime.toMillis());
+			exceeded = true;
+		}
+		if (maxLoadedClasses != null && classes > maxLoadedClasses) {
+			log.error("Démarrage ({}) : {} classes chargées, seuil {}", step, classes,
+					maxLoadedClasses);
+			exceeded = true;
+		}
+		if (exceeded) {
+			thresholdExceeded.increment();
+		}
+		return exceeded;
+	}
+
+	private static Duration duration(Environment environment, String name) {
+		final String value = environment.getProperty(PREFIX + name);
+		return StringUtils.hasText(value) ? DurationStyle.detectAndParse(value.trim()) : null;
+	}
+
+}
@@ -0,0 +1,39 @@
+package com.samos.core.timing;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Les phases du traitement d'une requête mesurées par {@link RequestTimings}.
+ * <p>
+ * Le nom de la phase est celui utilisé dans l'entête Server-Timing et dans le tag
+ * {@code phase} des métriques.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum Phase {
+
+	/** Validation des bodies ({@code @Valid}). */
+	VALIDATION("validation"),
+
+	/** Requêtes SQL émises par Hibernate. */
+	DATABASE("db"),
+
+	/** Appels aux services en aval via les clients Feign. */
+	DOWNSTREAM("downstream"),
+
+	/** Rendu des exports (pdf, images). */
+	RENDERING("render"),
+
+	/** Mapping des erreurs par le ResponseEntityExceptionHandler. */
+	EXCEPTION_MAPPING("error"),
+
+	/** Sérialisation et écriture du body de la réponse. */
+	SERIALIZATION("serialization"),
+
+	/** Reste du traitement (code applicatif). */
+	APPLICATION("app");
+
+	private final String metricName;
+
+}
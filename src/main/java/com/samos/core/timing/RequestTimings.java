@@ -0,0 +1,189 @@
+package com.samos.core.timing;
+
+import java.util.StringJoiner;
+import java.util.function.Supplier;
+
+/**
+ * Chronomètres par phase de la requête en cours (cf {@link Phase}).
+ * <p>
+ * Les chronomètres sont rattachés au thread de la requête par le
+ * {@link ServerTimingFilter} ; hors requête, les mesures sont ignorées. Une mesure ne
+ * coûte que deux appels à {@link System#nanoTime()}.
+ *
+ * <pre>
+ * <code class='java'>
+ * // Mesure d'une phase dans le code applicatif
+ * final byte[] pdf = RequestTimings.time(Phase.RENDERING, () -> renderer.render(sheet));
+ *
+ * // ou
+ * try (RequestTimings.Split split = RequestTimings.start(Phase.RENDERING)) {
+ *     renderer.render(sheet, outputStream);
+ * }
+ * </code>
+ * </pre>
+ */
+public final class RequestTimings {
+
+	private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+	private static final Split NOOP = () -> {
+	};
+
+	private final long start = System.nanoTime();
+	private final long[] durations = new long[Phase.values().length];
+	private final long[] openSince = new long[Phase.values().length];
+
+	private RequestTimings() {
+	}
+
+	/**
+	 * Mesure une phase du traitement de la requête en cours.
+	 *
+	 * @param phase la phase
+	 * @param task le traitement
+	 * @return le résultat du traitement
+	 */
+	public static <V> V time(Phase phase, Supplier<V> task) {
+		try (Split split = start(phase)) {
+			return task.get();
+		}
+	}
+
+	/**
+	 * Démarre la mesure d'une phase du traitement de la requête en cours.
+	 *
+	 * @param phase la phase
+	 * @return la mesure, à fermer en fin de phase
+	 */
+	public static Split start(Phase phase) {
+		final RequestTimings timings = CURRENT.get();
+		if (timings == null) {
+			return NOOP;
+		}
+		final long splitStart = System.nanoTime();
+		return () -> timings.add(phase, System.nanoTime() - splitStart);
+	}
+
+	/**
+	 * Ouvre une phase dont la fin n'est pas connue de l'appelant (cf {@link #close}).
+	 *
+	 * @param phase la phase
+	 */
+	public static void open(Phase phase) {
+		final RequestTimings timings = CURRENT.get();
+		if (timings != null && timings.openSince[phase.ordinal()] == 0) {
+			timings.openSince[phase.ordinal()] = System.nanoTime();
+		}
+	}
+
+	/**
+	 * Ferme une phase ouverte par {@link #open}.
+	 *
+	 * @param phase la phase
+	 */
+	public static void close(Phase phase) {
+		final RequestTimings timings = CURRENT.get();
+		if (timings != null) {
+			timings.closePhase(phase, System.nanoTime());
+		}
+	}
+
+	/**
+	 * @return les chronomètres de la requête en cours, ou {@code null} hors requête
+	 */
+	public static RequestTimings current() {
+		return CURRENT.get();
+	}
+
+	static RequestTimings begin() {
+		final RequestTimings timings = new RequestTimings();
+		CURRENT.set(timings);
+		return timings;
+	}
+
+	static void end() {
+		CURRENT.remove();
+	}
+
+	/**
+	 * Ferme les phases encore ouvertes et calcule la durée de la phase
+	 * {@link Phase#APPLICATION} (durée totale moins les autres phases).
+	 *
+	 * @return la durée totale de la requête, en nanosecondes
+	 */
+	long finish() {
+		final long now = System.nanoTime();
+		long measured = 0;
+		for (final Phase phase : Phase.values()) {
+			if (phase != Phase.APPLICATION) {
+				closePhase(phase, now);
+				measured += durations[phase.ordinal()];
+			}
+		}
+		final long total = now - start;
+		durations[Phase.APPLICATION.ordinal()] = Math.max(0, total - measured);
+		return total;
+	}
+
+	/**
+	 * @param phase la phase
+	 * @return la durée cumulée de la phase, en nanosecondes
+	 */
+	public long duration(Phase phase) {
+		return durations[phase.ordinal()];
+	}
+
+	/**
+	 * Valeur de l'entête Server-Timing à l'instant de l'appel : les phases non nulles
+	 * (phases ouvertes comprises) et la durée totale écoulée, en millisecondes.
+	 *
+	 * @return la valeur de l'entête Server-Timing
+	 */
+	public String toServerTiming() {
+		final long now = System.nanoTime();
+		final StringJoiner header = new StringJoiner(", ");
+		long measured = 0;
+		for (final Phase phase : Phase.values()) {
+			if (phase == Phase.APPLICATION) {
+				continue;
+			}
+			final long since = openSince[phase.ordinal()];
+			final long duration = durations[phase.ordinal()] + (since != 0 ? now - since : 0);
+			if (duration > 0) {
+				header.add(entry(phase.getMetricName(), duration));
+				measured += duration;
+			}
+		}
+		final long total = now - start;
+		header.add(entry(Phase.APPLICATION.getMetricName(), Math.max(0, total - measured)));
+		header.add(entry("total", total));
+		return header.toString();
+	}
+
+	private static String entry(String name, long nanos) {
+		return name + ";dur=" + nanos / 1_000 / 1000.0;
+	}
+
+	private void add(Phase phase, long duration) {
+		durations[phase.ordinal()] += duration;
+	}
+
+	private void closePhase(Phase phase, long now) {
+		final long since = openSince[phase.ordinal()];
+		if (since != 0) {
+			add(phase, now - since);
+			openSince[phase.ordinal()] = 0;
+		}
+	}
+
+	/**
+	 * Mesure en cours d'une phase.
+	 */
+	@FunctionalInterface
+	public interface Split extends AutoCloseable {
+
+		@Override
+		void close();
+	}
+
+}
@@ -0,0 +1,116 @@
+package com.samos.core.timing;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.core.Ordered;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Rattache les chronomètres {@link RequestTimings} au thread de chaque requête.
+ * <ul>
+ * <li>l'entête {@code Server-Timing} est ajouté avant l'écriture du body (cf
+ * {@link ServerTimingResponseBodyAdvice}) ;</li>
+ * <li>les durées par phase alimentent l'histogramme {@code http.server.phases} (tags
+ * {@code phase} et {@code operation}) pour une fraction {@code sampleRate} des
+ * requêtes ;</li>
+ * <li>le détail des phases est tracé pour les requêtes plus longues que
+ * {@code slowThreshold}.</li>
+ * </ul>
+ */
+@Slf4j
+public class ServerTimingFilter extends OncePerRequestFilter implements Ordered {
+
+	static final String HEADER = "Server-Timing";
+
+	private static final String UNKNOWN_OPERATION = "unknown";
+
+	private final MeterRegistry registry;
+	private final double sampleRate;
+	private final long slowThresholdNanos;
+
+	public ServerTimingFilter(MeterRegistry registry, double sampleRate,
+			Duration slowThreshold) {
+		this.registry = registry;
+		this.sampleRate = sampleRate;
+		this.slowThresholdNanos = slowThreshold.toNanos();
+	}
+
+	@Override
+	public int getOrder() {
+		// Au plus tôt pour mesurer la durée totale de la requête
+		return Ordered.HIGHEST_PRECEDENCE + 1;
+	}
+
+	@Override
+	protected void doFilterInternal(@NonNull HttpServletRequest request,
+			@NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
+			throws ServletException, IOException {
+		final RequestTimings timings = RequestTimings.begin();
+		try {
+			filterChain.doFilter(request, response);
+		}
+		finally {
+			RequestTimings.end();
+			final long total = timings.finish();
+
+			// Le body n'a pas été écrit par un message converter (erreur du conteneur, body vide)
+			if (!response.isCommitted() && !response.containsHeader(HEADER)) {
+				response.setHeader(HEADER, timings.toServerTiming());
+			}
+
+			final boolean sampled = sampleRate >= 1
+					|| sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+			if (sampled || total > slowThresholdNanos) {
+				final String operation = operation(request);
+				if (sampled) {
+					record(operation, timings);
+				}
+				if (total > slowThresholdNanos) {
+					log.warn("Requête lente {} {} ({}) : {} ms [{}]", request.getMethod(),
+							request.getRequestURI(), operation,
+							TimeUnit.NANOSECONDS.toMillis(total), timings.toServerTiming());
+				}
+			}
+		}
+	}
+
+	private void record(String operation, RequestTimings timings) {
+		for (final Phase phase : Phase.values()) {
+			final long duration = timings.duration(phase);
+			if (duration > 0) {
+				Timer.builder("http.server.phases") //
+						.description("Durée des phases du traitement des requêtes") //
+						.tag("phase", phase.getMetricName()) //
+						.tag("operation", operation) //
+						.publishPercentileHistogram() //
+						.register(registry) //
+						.record(duration, TimeUnit.NANOSECONDS);
+			}
+		}
+	}
+
+	/**
+	 * @return l'operationId (nom de la méthode du contrôleur) ayant traité la requête
+	 */
+	private static String operation(HttpServletRequest request) {
+		final Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+		return handler instanceof HandlerMethod handlerMethod
+				? handlerMethod.getMethod().getName()
+				: UNKNOWN_OPERATION;
+	}
+
+}
@@ -0,0 +1,43 @@
+package com.samos.core.timing;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Ajoute l'entête {@code Server-Timing} juste avant l'écriture du body, tant que la
+ * réponse n'est pas encore envoyée, et ouvre la phase {@link Phase#SERIALIZATION}
+ * (fermée en fin de requête par le {@link ServerTimingFilter}).
+ * <p>
+ * La durée de sérialisation n'est donc pas dans l'entête mais dans les métriques et la
+ * trace des requêtes lentes.
+ */
+@ControllerAdvice
+public class ServerTimingResponseBodyAdvice implements ResponseBodyAdvice<Object> {
+
+	@Override
+	public boolean supports(@NonNull MethodParameter returnType,
+			@NonNull Class<? extends HttpMessageConverter<?>> converterType) {
+		return true;
+	}
+
+	@Override
+	public Object beforeBodyWrite(Object body, @NonNull MethodParameter returnType,
+			@NonNull MediaType selectedContentType,
+			@NonNull Class<? extends HttpMessageConverter<?>> selectedConverterType,
+			@NonNull ServerHttpRequest request, @NonNull ServerHttpResponse response) {
+		final RequestTimings timings = RequestTimings.current();
+		if (timings != null) {
+			RequestTimings.close(Phase.EXCEPTION_MAPPING);
+			response.getHeaders().set(ServerTimingFilter.HEADER, timings.toServerTiming());
+			RequestTimings.open(Phase.SERIALIZATION);
+		}
+		return body;
+	}
+
+}
@@ -0,0 +1,58 @@
+package com.samos.core.timing;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.lang.NonNull;
+import org.springframework.validation.Errors;
+import org.springframework.validation.SmartValidator;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+
+/**
+ * Validateur MVC mesurant la validation des bodies ({@code @Valid}) dans la phase
+ * {@link Phase#VALIDATION}.
+ * <p>
+ * Seules les contraintes {@code jakarta.validation} sont évaluées par Spring 6 : les
+ * annotations {@code javax.validation} encore présentes dans le classpath sont ignorées
+ * et ne coûtent rien.
+ */
+public class TimedValidator implements SmartValidator {
+
+	private final ObjectProvider<jakarta.validation.Validator> validatorProvider;
+
+	private volatile SmartValidator delegate;
+
+	public TimedValidator(ObjectProvider<jakarta.validation.Validator> validatorProvider) {
+		this.validatorProvider = validatorProvider;
+	}
+
+	@Override
+	public boolean supports(@NonNull Class<?> clazz) {
+		return true;
+	}
+
+	@Override
+	public void validate(@NonNull Object target, @NonNull Errors errors) {
+		try (RequestTimings.Split split = RequestTimings.start(Phase.VALIDATION)) {
+			delegate().validate(target, errors);
+		}
+	}
+
+	@Override
+	public void validate(@NonNull Object target, @NonNull Errors errors,
+			@NonNull Object... validationHints) {
+		try (RequestTimings.Split split = RequestTimings.start(Phase.VALIDATION)) {
+			delegate().validate(target, errors, validationHints);
+		}
+	}
+
+	private SmartValidator delegate() {
+		if (delegate == null) {
+			// Résolu au premier usage pour ne pas initialiser la validation au démarrage
+			final jakarta.validation.Validator validator = validatorProvider.getObject();
+			delegate = validator instanceof SmartValidator smartValidator
+					? smartValidator
+					: new SpringValidatorAdapter(validator);
+		}
+		return delegate;
+	}
+
+}
@@ -0,0 +1,108 @@
+package com.samos.core.timing;
+
+import java.time.Duration;
+
+import org.hibernate.cfg.SessionEventSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.lang.NonNull;
+import org.springframework.validation.Validator;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Mesure des phases du traitement des requêtes (cf {@link ServerTimingFilter}).
+ * <ul>
+ * <li>activation : {@code samos.timing.enabled} (défaut true) ;</li>
+ * <li>fraction des requêtes alimentant les histogrammes :
+ * {@code samos.timing.sample-rate} (défaut 0.1) ;</li>
+ * <li>seuil de trace des requêtes lentes : {@code samos.timing.slow-threshold} (défaut
+ * 1s).</li>
+ * </ul>
+ * La phase {@link Phase#RENDERING} est mesurée par le
+ * {@link com.samos.core.render.ParallelRenderer} (ou par le code d'export avec
+ * {@link RequestTimings#time}), les appels Feign avec
+ * {@link com.samos.core.client.TimingClients}.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "samos.timing", name = "enabled", matchIfMissing = true)
+public class TimingConfiguration implements WebMvcConfigurer {
+
+	private final ObjectProvider<jakarta.validation.Validator> validatorProvider;
+
+	public TimingConfiguration(ObjectProvider<jakarta.validation.Validator> validatorProvider) {
+		this.validatorProvider = validatorProvider;
+	}
+
+	@Bean
+	public ServerTimingFilter serverTimingFilter(ObjectProvider<MeterRegistry> meterRegistry,
+			@Value("${samos.timing.sample-rate:0.1}") double sampleRate,
+			@Value("${samos.timing.slow-threshold:1s}") Duration slowThreshold) {
+		return new ServerTimingFilter(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry),
+				sampleRate, slowThreshold);
+	}
+
+	/**
+	 * Enregistre le {@link TimingSessionEventListener}, sauf si l'application déclare déjà
+	 * son propre listener de session (Hibernate n'en accepte qu'un) : la phase
+	 * {@link Phase#DATABASE} n'est alors pas mesurée.
+	 */
+	@Bean
+	public HibernatePropertiesCustomizer timingHibernatePropertiesCustomizer() {
+		return properties -> {
+			final Object listener = properties.putIfAbsent(
+					SessionEventSettings.AUTO_SESSION_EVENTS_LISTENER,
+					TimingSessionEventListener.class.getName());
+			if (listener != null) {
+				log.warn("Listener de session Hibernate {} déjà déclaré ({}) : la phase {} n'est"
+						+ " pas mesurée", listener, SessionEventSettings.AUTO_SESSION_EVENTS_LISTENER,
+						Phase.DATABASE);
+			}
+		};
+	}
+
+	/**
+	 * Ouvre la phase {@link Phase#EXCEPTION_MAPPING} avant les autres resolvers (dont
+	 * celui des {@code @ExceptionHandler}), jusqu'à l'écriture du body de l'erreur.
+	 */
+	@Bean
+	public HandlerExceptionResolver timingHandlerExceptionResolver() {
+		return new TimingHandlerExceptionResolver();
+	}
+
+	@Override
+	public Validator getValidator() {
+		return new TimedValidator(validatorProvider);
+	}
+
+	private static class TimingHandlerExceptionResolver
+			implements HandlerExceptionResolver, Ordered {
+
+		@Override
+		public ModelAndView resolveException(@NonNull HttpServletRequest request,
+				@NonNull HttpServletResponse response, Object handler, @NonNull Exception ex) {
+			RequestTimings.open(Phase.EXCEPTION_MAPPING);
+			return null;
+		}
+
+		@Override
+		public int getOrder() {
+			return Ordered.HIGHEST_PRECEDENCE;
+		}
+
+	}
+
+}
@@ -0,0 +1,53 @@
+package com.samos.core.timing;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Mesure dans la phase {@link Phase#DATABASE} l'obtention des connexions, la
+ * préparation et l'exécution des requêtes SQL émises par Hibernate.
+ * <p>
+ * Instancié par Hibernate pour chaque session (cf {@link TimingConfiguration}).
+ */
+public class TimingSessionEventListener extends BaseSessionEventListener {
+
+	@Override
+	public void jdbcConnectionAcquisitionStart() {
+		RequestTimings.open(Phase.DATABASE);
+	}
+
+	@Override
+	public void jdbcConnectionAcquisitionEnd() {
+		RequestTimings.close(Phase.DATABASE);
+	}
+
+	@Override
+	public void jdbcPrepareStatementStart() {
+		RequestTimings.open(Phase.DATABASE);
+	}
+
+	@Override
+	public void jdbcPrepareStatementEnd() {
+		RequestTimings.close(Phase.DATABASE);
+	}
+
+	@Override
+	public void jdbcExecuteStatementStart() {
+		RequestTimings.open(Phase.DATABASE);
+	}
+
+	@Override
+	public void jdbcExecuteStatementEnd() {
+		RequestTimings.close(Phase.DATABASE);
+	}
+
+	@Override
+	public void jdbcExecuteBatchStart() {
+		RequestTimings.open(Phase.DATABASE);
+	}
+
+	@Override
+	public void jdbcExecuteBatchEnd() {
+		RequestTimings.close(Phase.DATABASE);
+	}
+
+}